@@ -1,9 +1,14 @@
 package dev.mark.code;
 
+import dev.mark.code.api.cli.Cli;
 import dev.mark.code.api.ui.UI;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(new Cli().run(args));
+        }
+
         new UI().mainUI();
     }
 }
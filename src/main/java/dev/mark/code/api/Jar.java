@@ -1,38 +1,92 @@
 package dev.mark.code.api;
 
+import dev.mark.code.api.archive.ArchiveBudget;
+import dev.mark.code.api.archive.ArchiveLimits;
+import dev.mark.code.api.archive.HostileArchiveException;
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.api.store.ResourceStore;
+import dev.mark.code.constants.ThreatPatterns;
+import dev.mark.code.impl.batch.ClassCacheKeys;
+import dev.mark.code.impl.batch.ClassResultCache;
+import dev.mark.code.impl.deobf.IndirectCallResolver;
+import dev.mark.code.impl.deobf.PayloadDecoder;
+import dev.mark.code.impl.deobf.StringDecryptor;
+import dev.mark.code.impl.flow.StringFlow;
+import dev.mark.code.impl.graph.ClassHierarchy;
+import dev.mark.code.impl.signature.ClassAllowlist;
+import dev.mark.code.impl.signature.SignatureStore;
+import dev.mark.code.util.Disassembler;
+import dev.mark.code.util.HashUtils;
 import org.apache.commons.io.IOUtils;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
 
 public class Jar {
 
-    public static final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    public static final ResourceStore files = ResourceStore.create();
     public static final List<ClassNode> classes = Collections.synchronizedList(new ArrayList<>());
     public static final Map<String, String> manifest = new ConcurrentHashMap<>();
+    public static final List<ThreatResult> findings = Collections.synchronizedList(new ArrayList<>());
 
-    private static final Map<String, String> decompileCache = new ConcurrentHashMap<>();
+    private static final Map<String, Disassembler.Disassembly> disassemblyCache = new LinkedHashMap<>(64, 0.75f, true);
+    private static long disassemblyCacheChars;
     private static final Set<String> failedClasses = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Integer> classSizes = new ConcurrentHashMap<>();
+    private static final Map<String, ClassNode> classIndex = new ConcurrentHashMap<>();
+    private static final Set<String> suspiciousClasses = ConcurrentHashMap.newKeySet();
+    private static final Set<String> allowlistedClasses = ConcurrentHashMap.newKeySet();
+    private static final Map<String, String> classHashes = new ConcurrentHashMap<>();
+    private static final Map<String, String> cacheKeys = new ConcurrentHashMap<>();
+    private static final Map<String, List<ThreatResult>> cachedClasses = new ConcurrentHashMap<>();
+    private static final AtomicInteger storedFiles = new AtomicInteger();
+    private static final AtomicLong storedFileBytes = new AtomicLong();
 
     private static final String MAIN_METHOD_DESCRIPTOR = "([Ljava/lang/String;)V";
     private static final int PUBLIC_STATIC_MODIFIERS = 0x0009;
+    private static final int CONSTANT_CLASS_TAG = 7;
+    private static final long MAX_DISASSEMBLY_CACHE_CHARS = 4_000_000;
+
+    private static volatile ArchiveLimits archiveLimits = ArchiveLimits.defaults();
+    private static ClassResultCache classCache;
 
     public static void loadJar(File file) throws IOException {
+        loadJar(file, null);
+    }
+
+    public static void loadJar(File file, ClassResultCache cache) throws IOException {
         clearCache();
+        classCache = cache;
         validateJarFile(file);
+        checkJarSignature(file);
 
         try (JarFile jarFile = new JarFile(file)) {
+            ArchiveBudget budget = new ArchiveBudget(archiveLimits, file.getName(), file.length());
+            budget.checkDeclaredEntries(jarFile.size());
             loadManifest(jarFile);
-            loadEntries(jarFile);
+            loadEntries(jarFile, budget);
+            loadEmbeddedPayloads(budget);
+            ClassHierarchy.build(classes);
+            resolveCachedClasses();
+        } catch (HostileArchiveException e) {
+            rejectArchive(file.getName(), e);
         } catch (ZipException e) {
             throw new IOException("Invalid or corrupted JAR file: " + e.getMessage(), e);
         }
@@ -56,6 +110,25 @@ public class Jar {
         }
     }
 
+    private static void checkJarSignature(File file) throws IOException {
+        if (!SignatureStore.isEnabled()) return;
+
+        byte[] hash = HashUtils.sha256(file.toPath());
+        if (SignatureStore.isKnownMalicious(hash)) {
+            addSignatureFinding(file.getName(), "Archive matches a known malicious JAR", hash);
+        }
+    }
+
+    private static void checkClassSignature(String entryName, byte[] hash) {
+        if (hash != null && SignatureStore.isKnownMalicious(hash)) {
+            addSignatureFinding(entryName.substring(0, entryName.length() - ".class".length()), "Class matches a known malicious class file", hash);
+        }
+    }
+
+    private static void addSignatureFinding(String name, String description, byte[] hash) {
+        findings.add(new ThreatResult(ThreatResult.ThreatType.SIGNATURE, ThreatResult.RiskLevel.CRITICAL, name, "-", description, "SHA-256: " + HashUtils.toHex(hash)));
+    }
+
     private static boolean isJarFile(File file) {
         return file.getName().toLowerCase().endsWith(".jar");
     }
@@ -66,7 +139,33 @@ public class Jar {
         }
     }
 
-    private static void loadEntries(JarFile jarFile) {
+    public static void setArchiveLimits(ArchiveLimits limits) {
+        archiveLimits = limits;
+    }
+
+    private static void rejectArchive(String name, HostileArchiveException e) {
+        files.clear();
+        manifest.clear();
+        classes.clear();
+        classIndex.clear();
+        classSizes.clear();
+        classHashes.clear();
+        cacheKeys.clear();
+        cachedClasses.clear();
+        allowlistedClasses.clear();
+        suspiciousClasses.clear();
+        failedClasses.clear();
+        storedFiles.set(0);
+        storedFileBytes.set(0);
+        addHostileArchiveFinding(name, "-", e);
+    }
+
+    private static void addHostileArchiveFinding(String className, String methodName, HostileArchiveException e) {
+        findings.add(new ThreatResult(ThreatResult.ThreatType.HOSTILE_ARCHIVE, ThreatResult.RiskLevel.CRITICAL,
+                className, methodName, "Hostile archive: loading aborted", e.getMessage()));
+    }
+
+    private static void loadEntries(JarFile jarFile, ArchiveBudget budget) throws HostileArchiveException {
         Enumeration<JarEntry> entries = jarFile.entries();
         int processedEntries = 0;
         int totalEntries = jarFile.size();
@@ -76,35 +175,62 @@ public class Jar {
             processedEntries++;
 
             if (!jarEntry.isDirectory()) {
-                processJarEntry(jarFile, jarEntry, processedEntries, totalEntries);
+                processJarEntry(jarFile, jarEntry, budget, processedEntries, totalEntries);
             }
         }
     }
 
-    private static void processJarEntry(JarFile jarFile, JarEntry jarEntry, int processedEntries, int totalEntries) {
-        try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
-            byte[] bytes = IOUtils.toByteArray(inputStream);
-            processEntry(jarEntry.getName(), bytes);
+    private static void processJarEntry(JarFile jarFile, JarEntry jarEntry, ArchiveBudget budget, int processedEntries, int totalEntries) throws HostileArchiveException {
+        try (InputStream inputStream = budget.open(jarEntry.getName(), jarFile.getInputStream(jarEntry), jarEntry.getSize(), jarEntry.getCompressedSize())) {
+            if (jarEntry.getName().endsWith(".class")) {
+                processClassFile(jarEntry.getName(), IOUtils.toByteArray(inputStream));
+            } else {
+                files.put(jarEntry.getName(), inputStream, jarEntry.getSize());
+                countStoredFile(jarEntry.getSize());
+            }
+        } catch (HostileArchiveException e) {
+            throw e;
         } catch (Exception e) {
             System.err.printf("Error processing entry %s (%d/%d): %s%n",
                     jarEntry.getName(), processedEntries, totalEntries, e.getMessage());
         }
     }
 
-    private static void processEntry(String entryName, byte[] bytes) {
-        if (entryName.endsWith(".class")) {
-            processClassFile(entryName, bytes);
-        } else {
-            files.put(entryName, bytes);
-        }
+    private static void storeFile(String entryName, byte[] bytes) {
+        files.put(entryName, bytes);
+        countStoredFile(bytes.length);
+    }
+
+    private static void countStoredFile(long size) {
+        storedFiles.incrementAndGet();
+        storedFileBytes.addAndGet(Math.max(size, 0));
     }
 
     private static void processClassFile(String entryName, byte[] bytes) {
+        byte[] hash = SignatureStore.isEnabled() || ClassAllowlist.isEnabled() || classCache != null ? HashUtils.sha256(bytes) : null;
+        checkClassSignature(entryName, hash);
+
+        boolean trusted = hash != null && ClassAllowlist.isTrusted(hash);
+        String contentHash = classCache != null ? HashUtils.toHex(hash) : null;
+
         try {
-            ClassNode classNode = createClassNode(bytes);
+            ClassReader classReader = new ClassReader(bytes);
+            ClassNode classNode = createClassNode(classReader);
 
             if (isValidClass(classNode)) {
                 classes.add(classNode);
+                classIndex.put(classNode.name, classNode);
+                classSizes.put(classNode.name, bytes.length);
+                if (trusted) {
+                    allowlistedClasses.add(classNode.name);
+                }
+                if (contentHash != null) {
+                    classHashes.put(classNode.name, contentHash);
+                }
+
+                if (referencesSuspiciousClass(classReader)) {
+                    suspiciousClasses.add(classNode.name);
+                }
             } else {
                 handleInvalidClass(entryName, bytes);
             }
@@ -114,23 +240,142 @@ public class Jar {
         }
     }
 
-    private static ClassNode createClassNode(byte[] bytes) {
+    private static void resolveCachedClasses() {
+        if (classCache == null) return;
+
+        List<ClassNode> candidates = getCheckedClasses();
+        synchronized (classes) {
+            cacheKeys.putAll(ClassCacheKeys.compute(classes, classHashes));
+        }
+        for (ClassNode classNode : candidates) {
+            String key = cacheKeys.get(classNode.name);
+            List<ThreatResult> cached = key != null ? classCache.lookup(key) : null;
+            if (cached != null) {
+                cachedClasses.put(classNode.name, cached);
+            }
+        }
+    }
+
+    private static void loadEmbeddedPayloads(ArchiveBudget budget) {
+        List<ClassNode> scanned = getCheckedClasses();
+
+        for (int depth = 1; !scanned.isEmpty(); depth++) {
+            List<ClassNode> embedded = new ArrayList<>();
+            for (ClassNode classNode : scanned) {
+                for (MethodNode methodNode : classNode.methods) {
+                    for (AbstractInsnNode insn = methodNode.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                        if (insn instanceof LdcInsnNode ldcInsn && ldcInsn.cst instanceof String value) {
+                            for (PayloadDecoder.Payload payload : PayloadDecoder.decode(value).payloads()) {
+                                loadPayload(payload, classNode.name + "." + methodNode.name, depth, embedded, budget);
+                            }
+                        }
+                    }
+                }
+            }
+            scanned = embedded;
+        }
+    }
+
+    private static void loadPayload(PayloadDecoder.Payload payload, String origin, int depth, List<ClassNode> embedded, ArchiveBudget parentBudget) {
+        if (depth > archiveLimits.maxDepth()) {
+            int separator = origin.lastIndexOf('.');
+            addHostileArchiveFinding(origin.substring(0, separator), origin.substring(separator + 1),
+                    new HostileArchiveException("Payload embedded deeper than " + archiveLimits.maxDepth() + " levels was not loaded"));
+            return;
+        }
+
+        if (payload.kind() == PayloadDecoder.PayloadKind.CLASS) {
+            ClassNode classNode = loadEmbeddedClass(payload.bytes(), embedded);
+            addEmbeddedFinding(ThreatResult.RiskLevel.HIGH, origin,
+                    "Embedded class file " + (classNode != null ? classNode.name : "(unreadable)") + " decoded from string constant",
+                    "Encoding: " + payload.encoding() + ", " + payload.bytes().length + " bytes");
+            return;
+        }
+
+        int entries = 0;
+        int classCount = 0;
+        ArchiveBudget budget = parentBudget.nested("embedded in " + origin, payload.bytes().length);
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(payload.bytes()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries++;
+                InputStream entryStream = budget.open(entry.getName(), zip, entry.getSize(), entry.getCompressedSize());
+                if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
+                    entryStream.transferTo(OutputStream.nullOutputStream());
+                    continue;
+                }
+
+                if (loadEmbeddedClass(entryStream.readAllBytes(), embedded) != null) {
+                    classCount++;
+                }
+            }
+        } catch (HostileArchiveException e) {
+            int separator = origin.lastIndexOf('.');
+            addHostileArchiveFinding(origin.substring(0, separator), origin.substring(separator + 1), e);
+        } catch (IOException e) {
+            System.err.println("Cannot read embedded archive in " + origin + ": " + e.getMessage());
+        }
+
+        addEmbeddedFinding(ThreatResult.RiskLevel.HIGH, origin,
+                "Embedded archive decoded from string constant",
+                "Encoding: " + payload.encoding() + ", " + entries + " entries, " + classCount + " classes loaded for analysis");
+    }
+
+    private static ClassNode loadEmbeddedClass(byte[] bytes, List<ClassNode> embedded) {
+        try {
+            ClassReader classReader = new ClassReader(bytes);
+            ClassNode classNode = createClassNode(classReader);
+            if (!isValidClass(classNode)) return null;
+
+            if (classIndex.putIfAbsent(classNode.name, classNode) == null) {
+                classes.add(classNode);
+                classSizes.put(classNode.name, bytes.length);
+                embedded.add(classNode);
+                if (referencesSuspiciousClass(classReader)) {
+                    suspiciousClasses.add(classNode.name);
+                }
+            }
+            return classNode;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void addEmbeddedFinding(ThreatResult.RiskLevel risk, String origin, String description, String details) {
+        int separator = origin.lastIndexOf('.');
+        findings.add(new ThreatResult(ThreatResult.ThreatType.EMBEDDED_PAYLOAD, risk,
+                origin.substring(0, separator), origin.substring(separator + 1), description, details));
+    }
+
+    private static ClassNode createClassNode(ClassReader classReader) {
         ClassNode classNode = new ClassNode();
-        ClassReader classReader = new ClassReader(bytes);
         classReader.accept(classNode, ClassReader.EXPAND_FRAMES);
         return classNode;
     }
 
+    private static boolean referencesSuspiciousClass(ClassReader classReader) {
+        char[] buffer = new char[classReader.getMaxStringLength()];
+
+        for (int item = 1; item < classReader.getItemCount(); item++) {
+            int offset = classReader.getItem(item);
+            if (offset > 0 && classReader.readByte(offset - 1) == CONSTANT_CLASS_TAG
+                    && ThreatPatterns.SUSPICIOUS_REFERENCE_CLASSES.contains(classReader.readUTF8(offset, buffer))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void handleInvalidClass(String entryName, byte[] bytes) {
         System.err.println("Invalid class structure: " + entryName);
         failedClasses.add(entryName);
-        files.put(entryName, bytes);
+        storeFile(entryName, bytes);
     }
 
     private static void handleClassProcessingError(String entryName, byte[] bytes, Exception e) {
         System.err.println("Error processing class " + entryName + ": " + e.getMessage());
         failedClasses.add(entryName);
-        files.put(entryName, bytes);
+        storeFile(entryName, bytes);
     }
 
     private static boolean isValidClass(ClassNode classNode) {
@@ -143,15 +388,108 @@ public class Jar {
         files.clear();
         classes.clear();
         manifest.clear();
-        decompileCache.clear();
+        findings.clear();
+        clearDisassemblyCache();
+        StringDecryptor.clear();
+        IndirectCallResolver.clear();
+        StringFlow.clear();
+        PayloadDecoder.clear();
+        ClassHierarchy.reset();
         failedClasses.clear();
+        classSizes.clear();
+        classIndex.clear();
+        suspiciousClasses.clear();
+        allowlistedClasses.clear();
+        classHashes.clear();
+        cacheKeys.clear();
+        cachedClasses.clear();
+        classCache = null;
+        storedFiles.set(0);
+        storedFileBytes.set(0);
+    }
+
+    public static void releaseFiles() {
+        files.clear();
+    }
+
+    public static Disassembler.Disassembly getDisassembly(String className, String methodName, String methodDesc) {
+        String key = className + "." + methodName + (methodDesc != null ? methodDesc : "");
+        synchronized (disassemblyCache) {
+            Disassembler.Disassembly cached = disassemblyCache.get(key);
+            if (cached != null) return cached;
+        }
+
+        ClassNode classNode = classIndex.get(className);
+        if (classNode == null) return null;
+
+        MethodNode methodNode = classNode.methods.stream()
+                .filter(method -> method.name.equals(methodName) && (methodDesc == null || method.desc.equals(methodDesc)))
+                .findFirst()
+                .orElse(null);
+        if (methodNode == null) return null;
+
+        Disassembler.Disassembly disassembly = Disassembler.disassemble(methodNode);
+        synchronized (disassemblyCache) {
+            if (disassemblyCache.put(key, disassembly) == null) {
+                disassemblyCacheChars += disassembly.text().length();
+            }
+
+            Iterator<Disassembler.Disassembly> eldest = disassemblyCache.values().iterator();
+            while (disassemblyCacheChars > MAX_DISASSEMBLY_CACHE_CHARS && disassemblyCache.size() > 1) {
+                disassemblyCacheChars -= eldest.next().text().length();
+                eldest.remove();
+            }
+        }
+        return disassembly;
+    }
+
+    private static void clearDisassemblyCache() {
+        synchronized (disassemblyCache) {
+            disassemblyCache.clear();
+            disassemblyCacheChars = 0;
+        }
+    }
+
+    public static ClassResultCache getClassCache() {
+        return classCache;
+    }
+
+    public static String getCacheKey(String className) {
+        return cacheKeys.get(className);
+    }
+
+    public static List<ThreatResult> getCachedResults() {
+        return cachedClasses.values().stream().flatMap(List::stream).toList();
+    }
+
+    public static List<ClassNode> getCheckedClasses() {
+        synchronized (classes) {
+            return classes.stream()
+                    .filter(classNode -> !allowlistedClasses.contains(classNode.name) && !cachedClasses.containsKey(classNode.name))
+                    .toList();
+        }
+    }
+
+    public static ClassNode getClassNode(String className) {
+        return classIndex.get(className);
+    }
+
+    public static boolean hasSuspiciousReferences(String className) {
+        return suspiciousClasses.contains(className);
+    }
+
+    public static int getClassSize(String className) {
+        return classSizes.getOrDefault(className, 0);
     }
 
     public static Map<String, Object> getJarStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalClasses", classes.size());
-        stats.put("totalFiles", files.size());
+        stats.put("totalFiles", storedFiles.get());
+        stats.put("totalFileBytes", storedFileBytes.get());
         stats.put("failedClasses", failedClasses.size());
+        stats.put("allowlistedClasses", allowlistedClasses.size());
+        stats.put("cachedClasses", cachedClasses.size());
         stats.put("manifestEntries", manifest.size());
         stats.put("packageStats", calculatePackageStats());
         return stats;
@@ -0,0 +1,111 @@
+package dev.mark.code.api.archive;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public final class ArchiveBudget {
+
+    private final ArchiveLimits limits;
+    private final String archive;
+    private final long archiveSize;
+    private final ArchiveBudget parent;
+    private long totalBytes;
+    private int entries;
+
+    public ArchiveBudget(ArchiveLimits limits, String archive, long archiveSize) {
+        this(limits, archive, archiveSize, null);
+    }
+
+    private ArchiveBudget(ArchiveLimits limits, String archive, long archiveSize, ArchiveBudget parent) {
+        this.limits = limits;
+        this.archive = archive;
+        this.archiveSize = archiveSize;
+        this.parent = parent;
+    }
+
+    public ArchiveBudget nested(String nestedArchive, long nestedSize) {
+        return new ArchiveBudget(limits.nested(), nestedArchive, nestedSize, this);
+    }
+
+    public void checkDeclaredEntries(int declaredEntries) throws HostileArchiveException {
+        if (declaredEntries > limits.maxEntries()) {
+            throw violation(declaredEntries + " entries exceed the limit of " + limits.maxEntries());
+        }
+    }
+
+    public InputStream open(String entryName, InputStream inputStream, long declaredSize, long compressedSize) throws HostileArchiveException {
+        if (++entries > limits.maxEntries()) {
+            throw violation("more than " + limits.maxEntries() + " entries");
+        }
+        if (declaredSize > limits.maxEntryBytes()) {
+            throw violation(entryName + " declares " + declaredSize + " bytes, limit is " + limits.maxEntryBytes());
+        }
+        return new LimitedInputStream(entryName, inputStream, compressedSize);
+    }
+
+    private void charge(long bytes) throws HostileArchiveException {
+        totalBytes += bytes;
+        if (totalBytes > limits.maxTotalBytes()) {
+            throw violation("entries inflate past " + limits.maxTotalBytes() + " bytes in total");
+        }
+        if (parent != null) {
+            parent.charge(bytes);
+        }
+    }
+
+    private HostileArchiveException violation(String reason) {
+        return new HostileArchiveException("Hostile archive " + archive + ": " + reason);
+    }
+
+    private final class LimitedInputStream extends FilterInputStream {
+
+        private final String entryName;
+        private final long compressedSize;
+        private long entryBytes;
+
+        private LimitedInputStream(String entryName, InputStream inputStream, long compressedSize) {
+            super(inputStream);
+            this.entryName = entryName;
+            this.compressedSize = compressedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) count(1);
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) count(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) count(skipped);
+            return skipped;
+        }
+
+        private void count(long read) throws HostileArchiveException {
+            entryBytes += read;
+            if (entryBytes > limits.maxEntryBytes()) {
+                throw violation(entryName + " inflates past " + limits.maxEntryBytes() + " bytes");
+            }
+            charge(read);
+
+            if (compressedSize > 0 && entryBytes > ArchiveLimits.RATIO_CHECK_THRESHOLD
+                    && entryBytes / compressedSize > limits.maxCompressionRatio()) {
+                throw violation(entryName + " exceeds a compression ratio of " + limits.maxCompressionRatio() + ":1");
+            }
+            if (archiveSize > 0 && totalBytes > ArchiveLimits.RATIO_CHECK_THRESHOLD
+                    && totalBytes / archiveSize > limits.maxCompressionRatio()) {
+                throw violation("entries exceed a compression ratio of " + limits.maxCompressionRatio() + ":1 against the archive size");
+            }
+        }
+    }
+}
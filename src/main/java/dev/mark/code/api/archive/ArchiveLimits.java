@@ -0,0 +1,18 @@
+package dev.mark.code.api.archive;
+
+public record ArchiveLimits(long maxEntryBytes, long maxTotalBytes, int maxCompressionRatio, int maxEntries, int maxDepth) {
+
+    public static final long RATIO_CHECK_THRESHOLD = 1L << 20;
+
+    private static final long MAX_NESTED_BYTES = 16L << 20;
+    private static final int MAX_NESTED_ENTRIES = 10_000;
+
+    public static ArchiveLimits defaults() {
+        return new ArchiveLimits(512L << 20, 2L << 30, 100, 100_000, 3);
+    }
+
+    public ArchiveLimits nested() {
+        return new ArchiveLimits(Math.min(maxEntryBytes, MAX_NESTED_BYTES), Math.min(maxTotalBytes, MAX_NESTED_BYTES),
+                maxCompressionRatio, Math.min(maxEntries, MAX_NESTED_ENTRIES), maxDepth);
+    }
+}
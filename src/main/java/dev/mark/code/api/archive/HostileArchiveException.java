@@ -0,0 +1,11 @@
+package dev.mark.code.api.archive;
+
+import java.io.IOException;
+
+public class HostileArchiveException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public HostileArchiveException(String message) {
+        super(message);
+    }
+}
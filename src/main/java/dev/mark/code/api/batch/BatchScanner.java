@@ -0,0 +1,74 @@
+package dev.mark.code.api.batch;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.CheckConfig;
+import dev.mark.code.impl.CheckJar;
+import dev.mark.code.impl.batch.ClassResultCache;
+import dev.mark.code.util.JarFiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+public class BatchScanner {
+
+    private final List<Path> roots;
+    private final CheckConfig config;
+    private final ClassResultCache classCache = new ClassResultCache();
+
+    public record JarResult(Path jar, List<ThreatResult> findings, long reusedClasses, String error) {
+        public boolean failed() {
+            return error != null;
+        }
+    }
+
+    public record Summary(int jars, int withFindings, int failed, long distinctClasses, long reusedClasses) {}
+
+    public BatchScanner(List<Path> roots, CheckConfig config) {
+        this.roots = roots;
+        this.config = config;
+    }
+
+    public Summary scan(Consumer<String> progressCallback, Consumer<JarResult> resultCallback) throws IOException {
+        List<Path> jars = collectJars();
+        progressCallback.accept(String.format("Found %d jars", jars.size()));
+
+        int scanned = 0;
+        int withFindings = 0;
+        int failed = 0;
+        for (Path jar : jars) {
+            progressCallback.accept(String.format("Scanning %d/%d %s", ++scanned, jars.size(), jar));
+
+            long hitsBefore = classCache.hits();
+            try {
+                List<ThreatResult> findings = CheckJar.performAllChecks(jar.toFile(), config, classCache, message -> {}).join();
+                if (!findings.isEmpty()) {
+                    withFindings++;
+                }
+                resultCallback.accept(new JarResult(jar, findings, classCache.hits() - hitsBefore, null));
+            } catch (CompletionException e) {
+                failed++;
+                resultCallback.accept(new JarResult(jar, List.of(), classCache.hits() - hitsBefore, e.getCause().getMessage()));
+            }
+        }
+
+        return new Summary(jars.size(), withFindings, failed, classCache.stored(), classCache.hits());
+    }
+
+    private List<Path> collectJars() throws IOException {
+        Set<Path> jars = new LinkedHashSet<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root) && !Files.isRegularFile(root)) {
+                throw new IOException("Not a file or directory: " + root);
+            }
+            jars.addAll(JarFiles.findJars(root));
+        }
+        return new ArrayList<>(jars);
+    }
+}
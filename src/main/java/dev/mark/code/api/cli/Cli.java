@@ -0,0 +1,370 @@
+package dev.mark.code.api.cli;
+
+import dev.mark.code.api.batch.BatchScanner;
+import dev.mark.code.api.daemon.ScanDaemon;
+import dev.mark.code.api.maven.MavenRepositoryScanner;
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.api.model.Verdict;
+import dev.mark.code.api.watch.FolderWatcher;
+import dev.mark.code.impl.CheckConfig;
+import dev.mark.code.impl.CheckJar;
+import dev.mark.code.impl.ScanOptions;
+import dev.mark.code.impl.index.ReferenceIndex;
+import dev.mark.code.impl.rules.RuleProfiler;
+import dev.mark.code.impl.signature.ClassAllowlist;
+import dev.mark.code.impl.signature.SignatureStore;
+import dev.mark.code.impl.similarity.SimilarityIndex;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class Cli {
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_REJECTED = 1;
+    private static final int EXIT_ERROR = 2;
+
+    public int run(String[] args) {
+        try {
+            String[] command = applyGlobalOptions(args);
+            if (command.length == 0) {
+                return usage();
+            }
+
+            String[] options = Arrays.copyOfRange(command, 1, command.length);
+
+            return switch (command[0]) {
+                case "signatures" -> runSignatures(options);
+                case "allowlist" -> runAllowlist(options);
+                case "similarity" -> runSimilarity(options);
+                case "index" -> runIndex(options);
+                case "daemon" -> runDaemon(options);
+                case "watch" -> runWatch(options);
+                case "maven" -> runMaven(options);
+                case "batch" -> runBatch(options);
+                case "scan" -> runScan(options);
+                case "verdict" -> runVerdict(options);
+                default -> usage();
+            };
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return usage();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return EXIT_ERROR;
+        } finally {
+            printProfile();
+            CheckJar.shutdown();
+        }
+    }
+
+    private String[] applyGlobalOptions(String[] args) throws Exception {
+        List<String> remaining = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--signatures".equals(args[i]) && i + 1 < args.length) {
+                SignatureStore.configure(Path.of(args[++i]));
+            } else if ("--allowlist".equals(args[i]) && i + 1 < args.length) {
+                ClassAllowlist.configure(Path.of(args[++i]));
+            } else if ("--similarity".equals(args[i]) && i + 1 < args.length) {
+                SimilarityIndex.configure(Path.of(args[++i]));
+            } else if ("--index".equals(args[i]) && i + 1 < args.length) {
+                ReferenceIndex.configure(Path.of(args[++i]));
+            } else if ("--profile".equals(args[i])) {
+                RuleProfiler.enable();
+            } else {
+                remaining.add(args[i]);
+            }
+        }
+        return remaining.toArray(new String[0]);
+    }
+
+    private int runSignatures(String[] options) throws Exception {
+        if (options.length != 3 || !"build".equals(options[0])) {
+            throw new IllegalArgumentException("signatures: expected 'build <sha256-list.txt> <output.db>'");
+        }
+
+        int count = SignatureStore.build(Path.of(options[1]), Path.of(options[2]));
+        System.out.printf("Wrote %d signatures to %s%n", count, options[2]);
+        return EXIT_OK;
+    }
+
+    private int runAllowlist(String[] options) throws Exception {
+        if (options.length < 3 || !"build".equals(options[0])) {
+            throw new IllegalArgumentException("allowlist: expected 'build <output.db> <trusted.jar|directory>...'");
+        }
+
+        List<Path> sources = Arrays.stream(options, 2, options.length).map(Path::of).toList();
+        int count = ClassAllowlist.build(sources, Path.of(options[1]));
+        System.out.printf("Wrote %d trusted class hashes to %s%n", count, options[1]);
+        return EXIT_OK;
+    }
+
+    private int runSimilarity(String[] options) throws Exception {
+        if (options.length < 3 || !"build".equals(options[0])) {
+            throw new IllegalArgumentException("similarity: expected 'build <output.db> <family>=<sample.jar|directory>...'");
+        }
+
+        List<SimilarityIndex.FamilySource> sources = new ArrayList<>();
+        for (int i = 2; i < options.length; i++) {
+            int separator = options[i].indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("similarity: expected <family>=<sample.jar|directory>, got " + options[i]);
+            }
+            sources.add(new SimilarityIndex.FamilySource(options[i].substring(0, separator), Path.of(options[i].substring(separator + 1))));
+        }
+
+        int count = SimilarityIndex.build(sources, Path.of(options[1]));
+        System.out.printf("Wrote %d class signatures to %s%n", count, options[1]);
+        return EXIT_OK;
+    }
+
+    private int runIndex(String[] options) throws Exception {
+        if (options.length == 1 && "compact".equals(options[0])) {
+            System.out.printf("Reference index has %d segments%n", ReferenceIndex.compact());
+            return EXIT_OK;
+        }
+        if (options.length < 3 || options.length > 4 || !"query".equals(options[0])) {
+            throw new IllegalArgumentException("index: expected 'query <owner|method|string> <value> [--prefix]' or 'compact'");
+        }
+
+        ReferenceIndex.TermKind kind = ReferenceIndex.TermKind.valueOf(options[1].toUpperCase(Locale.ROOT));
+        boolean prefix = options.length == 4 && "--prefix".equals(options[3]);
+        if (options.length == 4 && !prefix) {
+            throw new IllegalArgumentException("index: unknown option " + options[3]);
+        }
+
+        Map<String, List<String>> byJar = new TreeMap<>();
+        for (ReferenceIndex.Reference reference : ReferenceIndex.query(kind, options[2], prefix)) {
+            byJar.computeIfAbsent(reference.jar(), jar -> new ArrayList<>()).add(reference.location());
+        }
+
+        byJar.forEach((jar, locations) -> {
+            System.out.println(jar);
+            locations.stream().distinct().forEach(location -> System.out.println("    " + location));
+        });
+        System.err.printf("%d jars reference %s%n", byJar.size(), options[2]);
+        return EXIT_OK;
+    }
+
+    private int runDaemon(String[] options) throws Exception {
+        int port = 7878;
+        int maxPending = 64;
+        for (int i = 0; i < options.length; i++) {
+            switch (options[i]) {
+                case "--port" -> port = Integer.parseInt(requireValue(options, ++i, "--port"));
+                case "--max-pending" -> maxPending = Integer.parseInt(requireValue(options, ++i, "--max-pending"));
+                default -> throw new IllegalArgumentException("daemon: unknown option " + options[i]);
+            }
+        }
+
+        ScanDaemon daemon = new ScanDaemon(port, maxPending);
+        daemon.start();
+        System.err.printf("Listening on http://%s:%d (POST /scan?path=<jar> or POST the jar bytes)%n",
+                daemon.getAddress().getHostString(), daemon.getAddress().getPort());
+        daemon.awaitTermination();
+        return EXIT_OK;
+    }
+
+    private int runWatch(String[] options) throws Exception {
+        if (options.length == 0) {
+            throw new IllegalArgumentException("watch: expected one or more directories");
+        }
+
+        List<Path> directories = Arrays.stream(options).map(Path::of).toList();
+        try (FolderWatcher watcher = new FolderWatcher(directories, this::printUpdate)) {
+            System.err.println("Watching " + directories);
+            watcher.run();
+        }
+        return EXIT_OK;
+    }
+
+    private void printUpdate(FolderWatcher.Update update) {
+        if (update.removed()) {
+            System.out.println("Removed " + update.jar());
+            return;
+        }
+
+        String highest = update.findings().stream()
+                .map(ThreatResult::getRiskLevel)
+                .max(Comparator.naturalOrder())
+                .map(ThreatResult.RiskLevel::getDisplayName)
+                .orElse("none");
+        System.out.printf("%s: %d findings, highest risk %s%n", update.jar(), update.findings().size(), highest);
+        update.findings().forEach(result -> System.out.println("    " + result));
+    }
+
+    private int runMaven(String[] options) throws Exception {
+        Path repository = Path.of(System.getProperty("user.home"), ".m2", "repository");
+        ThreatResult.RiskLevel minRisk = ThreatResult.RiskLevel.LOW;
+        for (int i = 0; i < options.length; i++) {
+            if ("--min-risk".equals(options[i])) {
+                minRisk = parseRiskLevel(requireValue(options, ++i, "--min-risk"));
+            } else if (i == 0) {
+                repository = Path.of(options[i]);
+            } else {
+                throw new IllegalArgumentException("maven: unknown option " + options[i]);
+            }
+        }
+
+        ThreatResult.RiskLevel threshold = minRisk;
+        MavenRepositoryScanner.Summary summary = new MavenRepositoryScanner(repository, CheckConfig.all()).scan(System.err::println, result -> {
+            List<ThreatResult> findings = result.findings().stream()
+                    .filter(finding -> finding.getRiskLevel().compareTo(threshold) >= 0)
+                    .toList();
+            if (findings.isEmpty() && !result.failed()) return;
+
+            result.artifacts().forEach(artifact -> System.out.println(artifact.coordinate()));
+            if (result.failed()) {
+                System.out.println("    Scan failed: " + result.error());
+            }
+            findings.forEach(finding -> System.out.println("    " + finding));
+        });
+
+        System.err.printf("Scanned %d distinct artifacts out of %d jars (%d sources/javadoc skipped), %d with findings, %d failed, %d duplicate classes reused%n",
+                summary.distinct(), summary.jars(), summary.skipped(), summary.withFindings(), summary.failed(), summary.reusedClasses());
+        return summary.failed() > 0 ? EXIT_ERROR : EXIT_OK;
+    }
+
+    private int runBatch(String[] options) throws Exception {
+        List<Path> roots = new ArrayList<>();
+        ThreatResult.RiskLevel minRisk = ThreatResult.RiskLevel.LOW;
+        for (int i = 0; i < options.length; i++) {
+            if ("--min-risk".equals(options[i])) {
+                minRisk = parseRiskLevel(requireValue(options, ++i, "--min-risk"));
+            } else {
+                roots.add(Path.of(options[i]));
+            }
+        }
+        if (roots.isEmpty()) {
+            throw new IllegalArgumentException("batch: expected one or more jars or directories");
+        }
+
+        ThreatResult.RiskLevel threshold = minRisk;
+        BatchScanner.Summary summary = new BatchScanner(roots, CheckConfig.all()).scan(System.err::println, result -> {
+            List<ThreatResult> findings = result.findings().stream()
+                    .filter(finding -> finding.getRiskLevel().compareTo(threshold) >= 0)
+                    .toList();
+            if (findings.isEmpty() && !result.failed()) return;
+
+            System.out.println(result.jar());
+            if (result.failed()) {
+                System.out.println("    Scan failed: " + result.error());
+            }
+            findings.forEach(finding -> System.out.println("    " + finding));
+        });
+
+        System.err.printf("Scanned %d jars, %d with findings, %d failed, %d distinct classes analyzed, %d duplicate classes reused%n",
+                summary.jars(), summary.withFindings(), summary.failed(), summary.distinctClasses(), summary.reusedClasses());
+        return summary.failed() > 0 ? EXIT_ERROR : EXIT_OK;
+    }
+
+    private static String requireValue(String[] options, int index, String option) {
+        if (index >= options.length) {
+            throw new IllegalArgumentException(option + " requires a value");
+        }
+        return options[index];
+    }
+
+    private int runScan(String[] options) throws Exception {
+        if (options.length == 0) {
+            throw new IllegalArgumentException("scan: missing JAR path");
+        }
+
+        boolean reachableOnly = false;
+        boolean reportUnreachable = false;
+        for (int i = 1; i < options.length; i++) {
+            switch (options[i]) {
+                case "--reachable-only" -> reachableOnly = true;
+                case "--report-unreachable" -> reportUnreachable = true;
+                default -> throw new IllegalArgumentException("scan: unknown option " + options[i]);
+            }
+        }
+
+        ScanOptions scanOptions = new ScanOptions(reachableOnly || reportUnreachable, reportUnreachable);
+        List<ThreatResult> results = CheckJar.performAllChecks(new File(options[0]), CheckConfig.all(), scanOptions, System.err::println).get();
+        results.forEach(this::printResult);
+
+        return EXIT_OK;
+    }
+
+    private void printResult(ThreatResult result) {
+        System.out.println(result);
+        if (result.isReachable()) {
+            System.out.println("    via " + String.join(" -> ", result.getCallerChain()));
+        }
+    }
+
+    private int runVerdict(String[] options) throws Exception {
+        if (options.length == 0) {
+            throw new IllegalArgumentException("verdict: missing JAR path");
+        }
+
+        ThreatResult.RiskLevel threshold = ThreatResult.RiskLevel.HIGH;
+        for (int i = 1; i < options.length; i++) {
+            if ("--threshold".equals(options[i]) && i + 1 < options.length) {
+                threshold = parseRiskLevel(options[++i]);
+            } else {
+                throw new IllegalArgumentException("verdict: unknown option " + options[i]);
+            }
+        }
+
+        Verdict verdict = CheckJar.performVerdict(new File(options[0]), CheckConfig.all(), threshold, System.err::println).get();
+        System.out.println(verdict);
+
+        return verdict.isRejected() ? EXIT_REJECTED : EXIT_OK;
+    }
+
+    private ThreatResult.RiskLevel parseRiskLevel(String value) {
+        try {
+            return ThreatResult.RiskLevel.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown risk level: " + value);
+        }
+    }
+
+    private void printProfile() {
+        if (!RuleProfiler.isEnabled()) return;
+
+        List<RuleProfiler.RuleStats> report = RuleProfiler.report();
+        if (report.isEmpty()) return;
+
+        System.err.println();
+        System.err.printf("%-30s %14s %12s %8s %12s %10s%n", "Rule (ranked by time)", "Evaluations", "Matches", "Match %", "Total ms", "ns/eval");
+        for (RuleProfiler.RuleStats stats : report) {
+            System.err.printf("%-30s %14d %12d %7.1f%% %12.1f %10d%n", stats.rule(), stats.evaluations(), stats.matches(),
+                    stats.matchRate() * 100, stats.nanos() / 1_000_000.0, stats.nanosPerEvaluation());
+        }
+    }
+
+    private int usage() {
+        System.err.println("""
+                Usage:
+                  java -jar JarChecker.jar                                   start the GUI
+                  java -jar JarChecker.jar signatures build <sha256-list.txt> <output.db>
+                  java -jar JarChecker.jar allowlist build <output.db> <trusted.jar|directory>...
+                  java -jar JarChecker.jar similarity build <output.db> <family>=<sample.jar|directory>...
+                  java -jar JarChecker.jar index query <owner|method|string> <value> [--prefix]
+                  java -jar JarChecker.jar index compact
+                  java -jar JarChecker.jar daemon [--port 7878] [--max-pending 64]
+                  java -jar JarChecker.jar watch <directory>...
+                  java -jar JarChecker.jar maven [<repository>] [--min-risk LEVEL]
+                  java -jar JarChecker.jar batch <jar|directory>... [--min-risk LEVEL]
+                  java -jar JarChecker.jar scan <jar> [--reachable-only] [--report-unreachable]
+                  java -jar JarChecker.jar verdict <jar> [--threshold LEVEL]  exit 1 on the first finding at or above LEVEL (default HIGH)
+
+                Global options:
+                  --signatures <db>   known-malicious hash database (default ~/.jarchecker/signatures.db)
+                  --allowlist <db>    trusted class hashes excluded from checks (default ~/.jarchecker/allowlist.db)
+                  --similarity <db>   malware family corpus for variant detection (default ~/.jarchecker/similarity.db)
+                  --index <dir>       reference index written by scans and read by 'index query' (default ~/.jarchecker/index)
+                  --profile           print per-rule evaluations, matches and time to stderr when the command ends""");
+        return EXIT_ERROR;
+    }
+}
@@ -0,0 +1,204 @@
+package dev.mark.code.api.daemon;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.CheckConfig;
+import dev.mark.code.impl.CheckJar;
+import dev.mark.code.impl.ScanOptions;
+import dev.mark.code.util.HashUtils;
+import dev.mark.code.util.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+public class ScanDaemon {
+
+    private static final int RESULT_CACHE_SIZE = 1024;
+    private static final long MAX_UPLOAD_BYTES = 512L * 1024 * 1024;
+
+    private final HttpServer server;
+    private final Semaphore admission;
+    private final int maxPending;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Map<String, String> resultCache = new LinkedHashMap<>(RESULT_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > RESULT_CACHE_SIZE;
+        }
+    };
+
+    public ScanDaemon(int port, int maxPending) throws IOException {
+        this.maxPending = maxPending;
+        this.admission = new Semaphore(maxPending);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/health", this::handleHealth);
+        this.server.createContext("/scan", this::handleScan);
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public void start() {
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "jar-checker-daemon-shutdown"));
+    }
+
+    public void stop() {
+        server.stop(1);
+        stopped.countDown();
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        int cached;
+        synchronized (resultCache) {
+            cached = resultCache.size();
+        }
+        respond(exchange, 200, String.format("{\"status\":\"ok\",\"pending\":%d,\"cachedResults\":%d}",
+                maxPending - admission.availablePermits(), cached));
+    }
+
+    private void handleScan(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, error("Use POST /scan?path=<jar> or POST the jar bytes to /scan"));
+            return;
+        }
+        if (!admission.tryAcquire()) {
+            respond(exchange, 503, error("Scan queue is full, retry later"));
+            return;
+        }
+
+        Path upload = null;
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Path jar;
+            if (query.containsKey("path")) {
+                jar = Path.of(query.get("path"));
+                if (!Files.isRegularFile(jar)) {
+                    respond(exchange, 404, error("No such file: " + jar));
+                    return;
+                }
+            } else {
+                upload = receiveUpload(exchange);
+                if (upload == null) {
+                    respond(exchange, 413, error("Upload is empty or larger than " + MAX_UPLOAD_BYTES + " bytes"));
+                    return;
+                }
+                jar = upload;
+            }
+
+            respond(exchange, 200, scan(jar, query));
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, error(e.getMessage()));
+        } catch (ExecutionException e) {
+            respond(exchange, 500, error("Scan failed: " + e.getCause().getMessage()));
+        } catch (Exception e) {
+            respond(exchange, 500, error(e.getMessage()));
+        } finally {
+            admission.release();
+            if (upload != null) {
+                Files.deleteIfExists(upload);
+            }
+        }
+    }
+
+    private String scan(Path jar, Map<String, String> query) throws IOException, InterruptedException, ExecutionException {
+        String mode = query.getOrDefault("mode", "scan");
+        boolean reachableOnly = Boolean.parseBoolean(query.get("reachableOnly"));
+        ThreatResult.RiskLevel threshold = ThreatResult.RiskLevel.valueOf(query.getOrDefault("threshold", "HIGH").toUpperCase(Locale.ROOT));
+
+        String sha256 = HashUtils.toHex(HashUtils.sha256(jar));
+        String key = switch (mode) {
+            case "scan" -> sha256 + "|scan|" + reachableOnly;
+            case "verdict" -> sha256 + "|verdict|" + threshold;
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+
+        String cached;
+        synchronized (resultCache) {
+            cached = resultCache.get(key);
+        }
+        if (cached != null) {
+            return response(jar, sha256, true, cached);
+        }
+
+        String result = mode.equals("scan")
+                ? "\"findings\":" + Json.threats(CheckJar.performAllChecks(jar.toFile(), CheckConfig.all(),
+                        new ScanOptions(reachableOnly, false), message -> {}).get())
+                : "\"verdict\":" + Json.verdict(CheckJar.performVerdict(jar.toFile(), CheckConfig.all(), threshold, message -> {}).get());
+
+        synchronized (resultCache) {
+            resultCache.put(key, result);
+        }
+        return response(jar, sha256, false, result);
+    }
+
+    private static String response(Path jar, String sha256, boolean cached, String result) {
+        return "{\"jar\":" + Json.quote(jar.toString()) + ",\"sha256\":" + Json.quote(sha256) + ",\"cached\":" + cached + "," + result + "}";
+    }
+
+    private static Path receiveUpload(HttpExchange exchange) throws IOException {
+        Path upload = Files.createTempFile("jar-checker-upload", ".jar");
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+
+        try (InputStream in = exchange.getRequestBody(); OutputStream out = Files.newOutputStream(upload)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                size += read;
+                if (size > MAX_UPLOAD_BYTES) break;
+                out.write(buffer, 0, read);
+            }
+        }
+
+        if (size == 0 || size > MAX_UPLOAD_BYTES) {
+            Files.deleteIfExists(upload);
+            return null;
+        }
+        return upload;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) return query;
+
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator <= 0) continue;
+            query.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package dev.mark.code.api.maven;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.CheckConfig;
+import dev.mark.code.impl.CheckJar;
+import dev.mark.code.impl.batch.ClassResultCache;
+import dev.mark.code.util.HashUtils;
+import dev.mark.code.util.JarFiles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class MavenRepositoryScanner {
+
+    private static final List<String> SKIPPED_CLASSIFIERS = List.of("-sources.jar", "-javadoc.jar");
+
+    private final Path repository;
+    private final CheckConfig config;
+    private final ClassResultCache classCache = new ClassResultCache();
+
+    public record Artifact(String coordinate, Path path) {}
+
+    public record ArtifactResult(String sha256, List<Artifact> artifacts, List<ThreatResult> findings, String error) {
+        public boolean failed() {
+            return error != null;
+        }
+    }
+
+    public record Summary(int jars, int skipped, int distinct, int withFindings, int failed, long reusedClasses) {}
+
+    public MavenRepositoryScanner(Path repository, CheckConfig config) {
+        this.repository = repository;
+        this.config = config;
+    }
+
+    public Summary scan(Consumer<String> progressCallback, Consumer<ArtifactResult> resultCallback) throws IOException {
+        List<Path> all = JarFiles.findJars(repository);
+        List<Path> jars = all.stream().filter(MavenRepositoryScanner::isScanned).toList();
+        int skipped = all.size() - jars.size();
+        progressCallback.accept(String.format("Found %d jars, skipped %d sources/javadoc jars", jars.size(), skipped));
+
+        Map<String, List<Artifact>> byContent = groupByContent(jars);
+        progressCallback.accept(String.format("Hashed %d jars into %d distinct artifacts", jars.size(), byContent.size()));
+
+        int scanned = 0;
+        int withFindings = 0;
+        int failed = 0;
+        for (Map.Entry<String, List<Artifact>> entry : byContent.entrySet()) {
+            List<Artifact> artifacts = entry.getValue();
+            progressCallback.accept(String.format("Scanning %d/%d %s", ++scanned, byContent.size(), artifacts.get(0).coordinate()));
+
+            try {
+                List<ThreatResult> findings = CheckJar.performAllChecks(artifacts.get(0).path().toFile(), config, classCache, message -> {}).join();
+                if (!findings.isEmpty()) {
+                    withFindings++;
+                }
+                resultCallback.accept(new ArtifactResult(entry.getKey(), artifacts, findings, null));
+            } catch (CompletionException e) {
+                failed++;
+                resultCallback.accept(new ArtifactResult(entry.getKey(), artifacts, List.of(), e.getCause().getMessage()));
+            }
+        }
+
+        return new Summary(jars.size(), skipped, byContent.size(), withFindings, failed, classCache.hits());
+    }
+
+    private Map<String, List<Artifact>> groupByContent(List<Path> jars) {
+        return jars.parallelStream()
+                .map(jar -> new HashedArtifact(sha256(jar), new Artifact(coordinate(jar), jar)))
+                .filter(hashed -> hashed.sha256() != null)
+                .collect(Collectors.groupingByConcurrent(HashedArtifact::sha256,
+                        Collectors.mapping(HashedArtifact::artifact, Collectors.toList())))
+                .entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().stream().sorted(Comparator.comparing(Artifact::coordinate)).toList()))
+                .sorted(Comparator.comparing(entry -> entry.getValue().get(0).coordinate()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private String coordinate(Path jar) {
+        Path relative = repository.relativize(jar);
+        int count = relative.getNameCount();
+        if (count < 4) {
+            return relative.toString();
+        }
+
+        String version = relative.getName(count - 2).toString();
+        String artifactId = relative.getName(count - 3).toString();
+        String groupId = relative.subpath(0, count - 3).toString().replace(relative.getFileSystem().getSeparator(), ".");
+        String fileName = relative.getFileName().toString();
+
+        String base = artifactId + "-" + version;
+        if (!fileName.startsWith(base)) {
+            return relative.toString();
+        }
+
+        String classifier = fileName.substring(base.length(), fileName.length() - ".jar".length());
+        String coordinate = groupId + ":" + artifactId + ":" + version;
+        return classifier.startsWith("-") ? coordinate + ":" + classifier.substring(1) : coordinate;
+    }
+
+    private static boolean isScanned(Path jar) {
+        String name = jar.getFileName().toString();
+        return SKIPPED_CLASSIFIERS.stream().noneMatch(name::endsWith);
+    }
+
+    private static String sha256(Path jar) {
+        try {
+            return HashUtils.toHex(HashUtils.sha256(jar));
+        } catch (IOException e) {
+            System.err.println("Cannot read " + jar + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private record HashedArtifact(String sha256, Artifact artifact) {}
+}
@@ -2,6 +2,7 @@ package dev.mark.code.api.model;
 
 import lombok.Getter;
 
+import java.util.List;
 import java.util.Objects;
 
 @Getter
@@ -10,16 +11,25 @@ public class ThreatResult {
     private final RiskLevel riskLevel;
     private final String className;
     private final String methodName;
+    private final String methodDesc;
     private final String description;
     private final String details;
     private final int lineNumber;
+    private final int instructionIndex;
+    private final List<String> callerChain;
 
     @Getter
     public enum ThreatType {
         URL("URL Detection"),
         ENCRYPTION("Encryption/Decryption"),
         WEB_CONNECTION("Web Connection"),
-        COMMAND_EXECUTION("Command Execution");
+        COMMAND_EXECUTION("Command Execution"),
+        SIGNATURE("Known Malicious Signature"),
+        SIMILARITY("Malware Similarity"),
+        EMBEDDED_PAYLOAD("Embedded Payload"),
+        RESOURCE("Suspicious Resource"),
+        ENTROPY("High Entropy Data"),
+        HOSTILE_ARCHIVE("Hostile Archive");
 
         private final String displayName;
 
@@ -44,20 +54,43 @@ public class ThreatResult {
         }
     }
 
-    public ThreatResult(ThreatType type, RiskLevel riskLevel, String className, String methodName, String description, String details, int lineNumber) {
+    public ThreatResult(ThreatType type, RiskLevel riskLevel, String className, String methodName, String methodDesc, String description, String details, int lineNumber, int instructionIndex, List<String> callerChain) {
         this.type = type;
         this.riskLevel = riskLevel;
         this.className = className;
         this.methodName = methodName;
+        this.methodDesc = methodDesc;
         this.description = description;
         this.details = details;
         this.lineNumber = lineNumber;
+        this.instructionIndex = instructionIndex;
+        this.callerChain = callerChain;
+    }
+
+    public ThreatResult(ThreatType type, RiskLevel riskLevel, String className, String methodName, String methodDesc, String description, String details, int lineNumber, List<String> callerChain) {
+        this(type, riskLevel, className, methodName, methodDesc, description, details, lineNumber, -1, callerChain);
+    }
+
+    public ThreatResult(ThreatType type, RiskLevel riskLevel, String className, String methodName, String description, String details, int lineNumber) {
+        this(type, riskLevel, className, methodName, null, description, details, lineNumber, List.of());
     }
 
     public ThreatResult(ThreatType type, RiskLevel riskLevel, String className, String methodName, String description, String details) {
         this(type, riskLevel, className, methodName, description, details, -1);
     }
 
+    public ThreatResult withCallerChain(List<String> chain) {
+        return new ThreatResult(type, riskLevel, className, methodName, methodDesc, description, details, lineNumber, instructionIndex, List.copyOf(chain));
+    }
+
+    public ThreatResult withRiskLevel(RiskLevel level, String note) {
+        return new ThreatResult(type, level, className, methodName, methodDesc, description, details + "\n" + note, lineNumber, instructionIndex, callerChain);
+    }
+
+    public boolean isReachable() {
+        return !callerChain.isEmpty();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,13 @@
+package dev.mark.code.api.model;
+
+public record Verdict(ThreatResult.RiskLevel threshold, ThreatResult trigger, int analyzedClasses, int totalClasses) {
+    public boolean isRejected() {
+        return trigger != null;
+    }
+
+    @Override
+    public String toString() {
+        String outcome = isRejected() ? "REJECTED by " + trigger : "PASSED (no finding at or above " + threshold.getDisplayName() + ")";
+        return String.format("%s - analyzed %d/%d classes", outcome, analyzedClasses, totalClasses);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.mark.code.api.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class HeapResourceStore implements ResourceStore {
+
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+    private final AtomicLong byteSize = new AtomicLong();
+
+    @Override
+    public void put(String name, byte[] bytes) {
+        byte[] previous = entries.put(name, bytes);
+        byteSize.addAndGet(bytes.length - (previous != null ? previous.length : 0));
+    }
+
+    @Override
+    public void put(String name, InputStream inputStream, long size) throws IOException {
+        put(name, inputStream.readAllBytes());
+    }
+
+    @Override
+    public ByteBuffer get(String name) {
+        byte[] bytes = entries.get(name);
+        return bytes != null ? ByteBuffer.wrap(bytes).asReadOnlyBuffer() : null;
+    }
+
+    @Override
+    public Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public long byteSize() {
+        return byteSize.get();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        byteSize.set(0);
+    }
+}
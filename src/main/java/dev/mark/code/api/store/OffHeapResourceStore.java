@@ -0,0 +1,150 @@
+package dev.mark.code.api.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class OffHeapResourceStore implements ResourceStore {
+
+    private static final int CHUNK_SIZE = 4 << 20;
+    private static final int MAX_POOLED_CHUNKS = 32;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Map<String, ByteBuffer> entries = new ConcurrentHashMap<>();
+    private final List<Path> spillFiles = new ArrayList<>();
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final Deque<ByteBuffer> pool = new ArrayDeque<>();
+    private ByteBuffer current;
+    private long byteSize;
+
+    @Override
+    public void put(String name, byte[] bytes) {
+        if (bytes.length > CHUNK_SIZE) {
+            synchronized (this) {
+                byteSize += bytes.length;
+            }
+            entries.put(name, ByteBuffer.wrap(bytes));
+            return;
+        }
+
+        ByteBuffer buffer = allocate(bytes.length);
+        buffer.put(0, bytes);
+        entries.put(name, buffer);
+    }
+
+    @Override
+    public void put(String name, InputStream inputStream, long size) throws IOException {
+        if (size < 0) {
+            put(name, inputStream.readAllBytes());
+            return;
+        }
+        if (size > CHUNK_SIZE) {
+            entries.put(name, map(name, inputStream, size));
+            return;
+        }
+
+        ByteBuffer buffer = allocate((int) size);
+        byte[] copy = new byte[(int) Math.min(COPY_BUFFER_SIZE, Math.max(size, 1))];
+        int position = 0;
+        int read;
+        while (position < size && (read = inputStream.read(copy, 0, (int) Math.min(copy.length, size - position))) > 0) {
+            buffer.put(position, copy, 0, read);
+            position += read;
+        }
+        if (position < size || inputStream.read() >= 0) {
+            throw new IOException("Entry size does not match its header: " + name);
+        }
+        entries.put(name, buffer);
+    }
+
+    @Override
+    public ByteBuffer get(String name) {
+        ByteBuffer buffer = entries.get(name);
+        return buffer != null ? buffer.asReadOnlyBuffer() : null;
+    }
+
+    @Override
+    public Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long byteSize() {
+        return byteSize;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        current = null;
+
+        for (ByteBuffer chunk : chunks) {
+            if (pool.size() < MAX_POOLED_CHUNKS) {
+                pool.push(chunk.clear());
+            }
+        }
+        chunks.clear();
+
+        for (Path spillFile : spillFiles) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                spillFile.toFile().deleteOnExit();
+            }
+        }
+        spillFiles.clear();
+        byteSize = 0;
+    }
+
+    private ByteBuffer map(String name, InputStream inputStream, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Entry too large: " + name);
+        }
+
+        Path spillFile = Files.createTempFile("jarchecker-", ".resource");
+        synchronized (this) {
+            spillFiles.add(spillFile);
+        }
+        if (Files.copy(inputStream, spillFile, StandardCopyOption.REPLACE_EXISTING) != size) {
+            throw new IOException("Entry size does not match its header: " + name);
+        }
+
+        try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            synchronized (this) {
+                byteSize += size;
+            }
+            return mapped;
+        }
+    }
+
+    private synchronized ByteBuffer allocate(int size) {
+        byteSize += size;
+        if (current == null || current.remaining() < size) {
+            current = pool.isEmpty() ? ByteBuffer.allocateDirect(CHUNK_SIZE) : pool.pop();
+            chunks.add(current);
+        }
+        ByteBuffer slice = current.slice(current.position(), size);
+        current.position(current.position() + size);
+        return slice;
+    }
+}
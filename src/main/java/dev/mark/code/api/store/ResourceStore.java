@@ -0,0 +1,33 @@
+package dev.mark.code.api.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+public interface ResourceStore {
+
+    String PROPERTY = "jarchecker.resources";
+
+    void put(String name, byte[] bytes);
+
+    void put(String name, InputStream inputStream, long size) throws IOException;
+
+    ByteBuffer get(String name);
+
+    Set<String> names();
+
+    int size();
+
+    long byteSize();
+
+    void clear();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    static ResourceStore create() {
+        return "heap".equalsIgnoreCase(System.getProperty(PROPERTY)) ? new HeapResourceStore() : new OffHeapResourceStore();
+    }
+}
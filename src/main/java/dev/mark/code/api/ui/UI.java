@@ -2,14 +2,19 @@ package dev.mark.code.api.ui;
 
 import dev.mark.code.api.Jar;
 import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.CheckConfig;
 import dev.mark.code.impl.CheckJar;
+import dev.mark.code.impl.ScanOptions;
 import dev.mark.code.impl.ThreatCheckerFactory;
+import dev.mark.code.util.Disassembler;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -17,6 +22,7 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -26,6 +32,7 @@ public class UI {
     private JFrame frame;
     private JTextField fileField;
     private JCheckBox[] checkBoxes;
+    private JCheckBox reachableOnlyBox;
     private JTable resultsTable;
     private DefaultTableModel tableModel;
     private JProgressBar progressBar;
@@ -34,6 +41,8 @@ public class UI {
     private JTextArea detailsArea;
     private JSplitPane mainSplitPane;
     private JLabel statsLabel;
+    private List<ThreatResult> currentResults = new ArrayList<>();
+    private SwingWorker<Disassembler.Disassembly, Void> disassemblyWorker;
 
     private static final String[] TABLE_COLUMNS = {
             "Type", "Risk", "Class", "Method", "Description"
@@ -47,6 +56,7 @@ public class UI {
     private static final Color BACKGROUND_COLOR = new Color(248, 250, 252);
     private static final Color PANEL_COLOR = new Color(255, 255, 255);
     private static final Color BORDER_COLOR = new Color(226, 232, 240);
+    private static final Color HIGHLIGHT_COLOR = new Color(254, 240, 138);
 
     public void mainUI() {
         SwingUtilities.invokeLater(this::createAndShowGUI);
@@ -210,6 +220,13 @@ public class UI {
             checkboxGrid.add(checkBoxes[i]);
         }
 
+        reachableOnlyBox = new JCheckBox("Reachable code only", false);
+        reachableOnlyBox.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 13));
+        reachableOnlyBox.setBackground(PANEL_COLOR);
+        reachableOnlyBox.setFocusPainted(false);
+        reachableOnlyBox.setToolTipText("Analyze only methods reachable from Main-Class, main methods, static initializers and service providers");
+        checkboxGrid.add(reachableOnlyBox);
+
         checksPanel.add(checkboxGrid);
         return checksPanel;
     }
@@ -429,7 +446,9 @@ public class UI {
             selectedChecks[i] = checkBoxes[i].isSelected();
         }
 
-        CompletableFuture<List<ThreatResult>> analysisTask = CheckJar.performAllChecks(file, selectedChecks[0], selectedChecks[1], selectedChecks[2], selectedChecks[3], selectedChecks[4], this::updateProgress);
+        CheckConfig config = new CheckConfig(selectedChecks[0], selectedChecks[1], selectedChecks[2], selectedChecks[3], selectedChecks[4], selectedChecks[5]);
+        ScanOptions options = new ScanOptions(reachableOnlyBox.isSelected(), false);
+        CompletableFuture<List<ThreatResult>> analysisTask = CheckJar.performAllChecks(file, config, options, this::updateProgress);
 
         analysisTask.whenComplete((results, throwable) -> SwingUtilities.invokeLater(() -> {
             analyzeButton.setEnabled(true);
@@ -475,10 +494,11 @@ public class UI {
     private void updateJarStatsAfterAnalysis() {
         var stats = Jar.getJarStats();
         statsLabel.setText(String.format(
-                "Analysis complete | Classes: %d | Files: %d | Failed: %d",
+                "Analysis complete | Classes: %d | Files: %d | Failed: %d | Allowlisted: %d",
                 ((Number) stats.get("totalClasses")).intValue(),
                 ((Number) stats.get("totalFiles")).intValue(),
-                ((Number) stats.get("failedClasses")).intValue()
+                ((Number) stats.get("failedClasses")).intValue(),
+                ((Number) stats.get("allowlistedClasses")).intValue()
         ));
     }
 
@@ -491,6 +511,7 @@ public class UI {
 
     private void displayResults(List<ThreatResult> results) {
         tableModel.setRowCount(0);
+        currentResults = results;
 
         for (ThreatResult result : results) {
             Object[] row = {
@@ -521,16 +542,85 @@ public class UI {
         String description = (String) tableModel.getValueAt(modelRow, 4);
         String type = (String) tableModel.getValueAt(modelRow, 0);
 
+        ThreatResult result = currentResults.get(modelRow);
         String details = "THREAT ANALYSIS\n" +
                 "═══════════════════════════════════════\n\n" +
                 "DETAILS\n" +
                 "Type: " + type + "\n" +
                 "Class: " + className + "\n" +
                 "Method: " + methodName + "\n" +
-                "Description: " + description + "\n\n";
+                "Description: " + description + "\n\n" +
+                formatCallerChain(result) + "\n" +
+                "DISASSEMBLY\n";
 
-        detailsArea.setText(details);
+        detailsArea.getHighlighter().removeAllHighlights();
+        detailsArea.setText(details + "Loading...");
         detailsArea.setCaretPosition(0);
+        showDisassembly(result, details);
+    }
+
+    private void showDisassembly(ThreatResult result, String details) {
+        if (disassemblyWorker != null) {
+            disassemblyWorker.cancel(false);
+        }
+
+        disassemblyWorker = new SwingWorker<>() {
+            @Override
+            protected Disassembler.Disassembly doInBackground() {
+                return Jar.getDisassembly(result.getClassName(), result.getMethodName(), result.getMethodDesc());
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+
+                try {
+                    Disassembler.Disassembly disassembly = get();
+                    if (disassembly == null) {
+                        detailsArea.setText(details + "Not available for this finding");
+                        detailsArea.setCaretPosition(0);
+                        return;
+                    }
+
+                    detailsArea.setText(details + disassembly.text());
+                    highlightInstruction(details.length(), disassembly, result.getInstructionIndex());
+                } catch (Exception e) {
+                    detailsArea.setText(details + "Error: " + e.getMessage());
+                    detailsArea.setCaretPosition(0);
+                }
+            }
+        };
+        disassemblyWorker.execute();
+    }
+
+    private void highlightInstruction(int offset, Disassembler.Disassembly disassembly, int instructionIndex) {
+        int start = disassembly.start(instructionIndex);
+        int end = disassembly.end(instructionIndex);
+        if (start < 0 || end <= start) {
+            detailsArea.setCaretPosition(0);
+            return;
+        }
+
+        try {
+            detailsArea.getHighlighter().addHighlight(offset + start, offset + end,
+                    new DefaultHighlighter.DefaultHighlightPainter(HIGHLIGHT_COLOR));
+            detailsArea.setCaretPosition(offset + start);
+        } catch (BadLocationException e) {
+            detailsArea.setCaretPosition(0);
+        }
+    }
+
+    private String formatCallerChain(ThreatResult result) {
+        if (!result.isReachable()) {
+            return "CALL CHAIN\nNot reached from any entry point\n";
+        }
+
+        StringBuilder chain = new StringBuilder("CALL CHAIN\n");
+        List<String> callerChain = result.getCallerChain();
+        for (int i = 0; i < callerChain.size(); i++) {
+            chain.append("  ".repeat(i)).append(i == 0 ? "" : "→ ").append(callerChain.get(i)).append("\n");
+        }
+        return chain.toString();
     }
 
     private void showJarStats() {
@@ -550,6 +640,7 @@ public class UI {
         statsText.append("Classes: ").append(stats.get("totalClasses")).append("\n");
         statsText.append("Files: ").append(stats.get("totalFiles")).append("\n");
         statsText.append("Failed Classes: ").append(stats.get("failedClasses")).append("\n");
+        statsText.append("Allowlisted Classes: ").append(stats.get("allowlistedClasses")).append("\n");
         statsText.append("Manifest Entries: ").append(stats.get("manifestEntries")).append("\n\n");
 
         if (!mainClasses.isEmpty()) {
@@ -591,6 +682,7 @@ public class UI {
 
     private void clearResults() {
         tableModel.setRowCount(0);
+        currentResults = new ArrayList<>();
         detailsArea.setText("Select a threat from the table to view detailed information...");
         progressBar.setValue(0);
         progressBar.setString("Ready to analyze");
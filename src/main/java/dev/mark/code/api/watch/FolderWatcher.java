@@ -0,0 +1,183 @@
+package dev.mark.code.api.watch;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.CheckConfig;
+import dev.mark.code.impl.CheckJar;
+import dev.mark.code.impl.ScanOptions;
+import dev.mark.code.util.HashUtils;
+import dev.mark.code.util.JarFiles;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+public class FolderWatcher implements AutoCloseable {
+
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Map<Path, Long> pending = new HashMap<>();
+    private final Map<Path, WatchedJar> results = new ConcurrentHashMap<>();
+    private final Consumer<Update> listener;
+
+    public record FileState(long size, long lastModified, String sha256) {}
+
+    public record WatchedJar(FileState state, List<ThreatResult> findings) {}
+
+    public record Update(Path jar, List<ThreatResult> findings, boolean removed) {}
+
+    public FolderWatcher(List<Path> directories, Consumer<Update> listener) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.listener = listener;
+
+        for (Path directory : directories) {
+            registerTree(directory);
+        }
+    }
+
+    public Map<Path, WatchedJar> getResults() {
+        return Collections.unmodifiableMap(results);
+    }
+
+    public void run() throws InterruptedException, IOException {
+        for (Path directory : new ArrayList<>(watchedDirectories.values())) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(FolderWatcher::isJar).forEach(this::check);
+            }
+        }
+
+        while (true) {
+            WatchKey key = pending.isEmpty()
+                    ? watchService.take()
+                    : watchService.poll(nextDeadline() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+
+            if (key != null) {
+                processEvents(key);
+            }
+            checkSettled();
+        }
+    }
+
+    private void processEvents(WatchKey key) {
+        Path directory = watchedDirectories.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                rescan();
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                try {
+                    registerTree(path);
+                    JarFiles.findJars(path).forEach(this::schedule);
+                } catch (IOException e) {
+                    System.err.println("Cannot watch " + path + ": " + e.getMessage());
+                }
+            } else if (isJar(path) || results.containsKey(path)) {
+                schedule(path);
+            }
+        }
+
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private void rescan() {
+        results.keySet().forEach(this::schedule);
+        for (Path directory : watchedDirectories.values()) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(FolderWatcher::isJar).forEach(this::schedule);
+            } catch (IOException e) {
+                System.err.println("Cannot list " + directory + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void schedule(Path jar) {
+        pending.put(jar, System.currentTimeMillis() + DEBOUNCE_MILLIS);
+    }
+
+    private long nextDeadline() {
+        return Math.max(System.currentTimeMillis() + 1, Collections.min(pending.values()));
+    }
+
+    private void checkSettled() {
+        long now = System.currentTimeMillis();
+        List<Path> settled = pending.entrySet().stream()
+                .filter(entry -> entry.getValue() <= now)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        for (Path jar : settled) {
+            pending.remove(jar);
+            check(jar);
+        }
+    }
+
+    private void check(Path jar) {
+        try {
+            if (!Files.isRegularFile(jar)) {
+                if (results.remove(jar) != null) {
+                    listener.accept(new Update(jar, List.of(), true));
+                }
+                return;
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            WatchedJar previous = results.get(jar);
+            if (previous != null && previous.state().size() == size && previous.state().lastModified() == lastModified) {
+                return;
+            }
+
+            String sha256 = HashUtils.toHex(HashUtils.sha256(jar));
+            FileState state = new FileState(size, lastModified, sha256);
+            if (previous != null && previous.state().sha256().equals(sha256)) {
+                results.put(jar, new WatchedJar(state, previous.findings()));
+                return;
+            }
+
+            List<ThreatResult> findings = CheckJar.performAllChecks(jar.toFile(), CheckConfig.all(), ScanOptions.full(), message -> {}).join();
+            results.put(jar, new WatchedJar(state, findings));
+            listener.accept(new Update(jar, findings, false));
+        } catch (IOException e) {
+            System.err.println("Cannot check " + jar + ": " + e.getMessage());
+        } catch (CompletionException e) {
+            System.err.println("Cannot check " + jar + ": " + e.getCause().getMessage());
+        }
+    }
+
+    private void registerTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                watchedDirectories.put(key, directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean isJar(Path path) {
+        return JarFiles.isJar(path) && Files.isRegularFile(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -1,6 +1,8 @@
 package dev.mark.code.constants;
 
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class ThreatPatterns {
 
@@ -12,6 +14,10 @@ public final class ThreatPatterns {
             "java/net/http/HttpResponse"
     );
 
+    public static final Set<String> SSL_BYPASS_TYPES = Set.of(
+            "javax/net/ssl/TrustManager", "javax/net/ssl/HostnameVerifier"
+    );
+
     public static final Set<String> DANGEROUS_HTTP_METHODS = Set.of(
             "connect", "openConnection", "getInputStream", "getOutputStream",
             "setRequestMethod", "setRequestProperty", "addRequestProperty", "send", "sendAsync", "execute"
@@ -97,4 +103,9 @@ public final class ThreatPatterns {
     public static final Set<String> MEDIUM_RISK_URL_KEYWORDS = Set.of(
             "api", "upload", "config"
     );
-}
\ No newline at end of file
+
+    // Constant-pool prefilter patterns
+    public static final Set<String> SUSPICIOUS_REFERENCE_CLASSES = Stream.of(
+            WEB_CONNECTION_CLASSES, CRYPTO_CLASSES, COMMAND_EXECUTION_CLASSES, BASE64_CLASSES
+    ).flatMap(Set::stream).collect(Collectors.toUnmodifiableSet());
+}
@@ -1,15 +1,22 @@
 package dev.mark.code.impl;
 
 import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.deobf.IndirectCallResolver;
+import dev.mark.code.impl.deobf.PayloadDecoder;
+import dev.mark.code.impl.deobf.StringDecryptor;
+import dev.mark.code.impl.flow.StringFlow;
 import dev.mark.code.util.StringUtils;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 public abstract class AbstractThreatChecker {
 
+    private static final ThreadLocal<InstructionContext> CONTEXT = ThreadLocal.withInitial(InstructionContext::new);
+    private static final Predicate<MethodNode> ALL_METHODS = methodNode -> true;
+
     protected final ThreatResult.ThreatType threatType;
 
     protected AbstractThreatChecker(ThreatResult.ThreatType threatType) {
@@ -17,19 +24,28 @@ public abstract class AbstractThreatChecker {
     }
 
     public final List<ThreatResult> performCheck(List<ClassNode> classes) {
-        return classes.parallelStream().flatMap(classNode -> analyzeClass(classNode).stream()).collect(Collectors.toList());
+        return ClassScheduler.execute(classes, this::analyzeClass);
     }
 
-    private List<ThreatResult> analyzeClass(ClassNode classNode) {
-        List<ThreatResult> results = new ArrayList<>();
+    public final List<ThreatResult> performCheck(List<ClassNode> classes, Predicate<MethodNode> methodFilter) {
+        return ClassScheduler.execute(classes, (classNode, results) -> analyzeClass(classNode, results, methodFilter));
+    }
 
-        if (classNode.methods != null) {
-            for (MethodNode methodNode : classNode.methods) {
-                analyzeMethod(classNode, methodNode, results);
-            }
-        }
+    public final void analyzeClass(ClassNode classNode, List<ThreatResult> results) {
+        analyzeClass(classNode, results, ALL_METHODS);
+    }
 
-        return results;
+    private void analyzeClass(ClassNode classNode, List<ThreatResult> results, Predicate<MethodNode> methodFilter) {
+        if (classNode.methods == null) return;
+
+        InstructionContext context = CONTEXT.get();
+        for (MethodNode methodNode : classNode.methods) {
+            if (!methodFilter.test(methodNode)) continue;
+
+            context.begin(methodNode);
+            analyzeMethod(classNode, methodNode, results);
+        }
+        context.reset();
     }
 
     protected abstract void analyzeMethod(ClassNode classNode, MethodNode methodNode, List<ThreatResult> results);
@@ -38,37 +54,105 @@ public abstract class AbstractThreatChecker {
 
     protected void analyzeMethodCall(MethodInsnNode methodInsnNode, String className, String methodName, String currentContext, List<ThreatResult> results) {}
 
+    protected boolean usesCallContext(MethodInsnNode methodInsnNode) {
+        return false;
+    }
+
+    protected String selectCallContext(List<String> reachingStrings) {
+        return reachingStrings.isEmpty() ? null : reachingStrings.getFirst();
+    }
+
     protected final ThreatResult createThreatResult(ThreatResult.RiskLevel riskLevel, String className,
                                                     String methodName, String description, String details) {
-        return new ThreatResult(threatType, riskLevel, className, methodName, description, details);
+        InstructionContext context = CONTEXT.get();
+        MethodNode current = context.methodNode;
+        if (current == null || !current.name.equals(methodName)) {
+            return new ThreatResult(threatType, riskLevel, className, methodName, null, description, details, -1, List.of());
+        }
+
+        AbstractInsnNode instruction = context.instruction;
+        int instructionIndex = instruction != null ? current.instructions.indexOf(instruction) : -1;
+        return new ThreatResult(threatType, riskLevel, className, methodName, current.desc, description, details,
+                lineNumberOf(instruction), instructionIndex, List.of());
+    }
+
+    private static int lineNumberOf(AbstractInsnNode instruction) {
+        for (AbstractInsnNode insn = instruction; insn != null; insn = insn.getPrevious()) {
+            if (insn instanceof LineNumberNode lineNumberNode) {
+                return lineNumberNode.line;
+            }
+        }
+        return -1;
     }
 
     protected final void analyzeInstructions(ClassNode classNode, MethodNode methodNode, List<ThreatResult> results) {
         if (methodNode.instructions == null) return;
 
-        AbstractInsnNode[] instructions = methodNode.instructions.toArray();
-        InstructionContext context = new InstructionContext();
+        InstructionContext context = CONTEXT.get();
 
-        for (AbstractInsnNode instruction : instructions) {
+        for (AbstractInsnNode instruction = methodNode.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            context.instruction = instruction;
             processInstruction(instruction, classNode, methodNode, context, results);
+            processIndirectCall(instruction, classNode, methodNode, context, results);
         }
+        context.instruction = null;
     }
 
-    private void processInstruction(AbstractInsnNode instruction, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
+    protected void processInstruction(AbstractInsnNode instruction, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
         switch (instruction) {
             case LdcInsnNode ldcNode -> processLdcInstruction(ldcNode, classNode, methodNode, context, results);
-            case MethodInsnNode methodInsnNode -> analyzeMethodCall(methodInsnNode, classNode.name, methodNode.name, context.lastString, results);
-            case IntInsnNode intInsnNode -> context.lastInteger = intInsnNode.operand;
+            case MethodInsnNode methodInsnNode -> processMethodCall(methodInsnNode, classNode, methodNode, context, results);
+            case IntInsnNode intInsnNode -> context.setLastInteger(intInsnNode.operand);
             default -> {}
         }
     }
 
+    protected void processStringConstant(String value, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
+        analyzeStringConstant(value, classNode.name, methodNode.name, results);
+    }
+
+    protected final void processString(String value, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
+        processStringConstant(value, classNode, methodNode, context, results);
+
+        PayloadDecoder.Decoded decoded = PayloadDecoder.decode(value);
+        for (PayloadDecoder.DecodedText text : decoded.texts()) {
+            processStringConstant(text.text(), classNode, methodNode, context, results);
+        }
+    }
+
+    protected final void processMethodCall(MethodInsnNode methodInsnNode, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
+        String decrypted = StringDecryptor.decrypt(methodInsnNode);
+        if (decrypted != null) {
+            processString(decrypted, classNode, methodNode, context, results);
+        }
+        analyzeMethodCall(methodInsnNode, classNode.name, methodNode.name, callContext(methodNode, methodInsnNode, methodInsnNode), results);
+    }
+
+    private void processIndirectCall(AbstractInsnNode instruction, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
+        int opcode = instruction.getOpcode();
+        if (opcode != Opcodes.INVOKEDYNAMIC && opcode != Opcodes.INVOKEVIRTUAL) return;
+
+        IndirectCallResolver.Resolution resolution = IndirectCallResolver.resolve(methodNode, instruction);
+        if (resolution == null) return;
+
+        if (resolution.text() != null) {
+            processString(resolution.text(), classNode, methodNode, context, results);
+        }
+        for (MethodInsnNode call : resolution.calls()) {
+            analyzeMethodCall(call, classNode.name, methodNode.name, callContext(methodNode, instruction, call), results);
+        }
+    }
+
+    private String callContext(MethodNode methodNode, AbstractInsnNode site, MethodInsnNode call) {
+        if (!usesCallContext(call)) return null;
+        return selectCallContext(StringFlow.reachingStrings(methodNode, site));
+    }
+
     private void processLdcInstruction(LdcInsnNode ldcNode, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
         if (ldcNode.cst instanceof String stringValue) {
-            context.lastString = stringValue;
-            analyzeStringConstant(stringValue, classNode.name, methodNode.name, results);
+            processString(stringValue, classNode, methodNode, context, results);
         } else if (ldcNode.cst instanceof Integer intValue) {
-            context.lastInteger = intValue;
+            context.setLastInteger(intValue);
         }
     }
 
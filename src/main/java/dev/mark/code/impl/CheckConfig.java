@@ -1,6 +1,10 @@
 package dev.mark.code.impl;
 
-public record CheckConfig(boolean url, boolean encrypt, boolean webConnect, boolean command, boolean socket) {
+public record CheckConfig(boolean url, boolean encrypt, boolean webConnect, boolean command, boolean socket, boolean entropy) {
+    public static CheckConfig all() {
+        return new CheckConfig(true, true, true, true, true, true);
+    }
+
     public boolean isEnabled(ThreatCheckerFactory.CheckerType type) {
         return switch (type) {
             case URL -> url;
@@ -8,6 +12,7 @@ public record CheckConfig(boolean url, boolean encrypt, boolean webConnect, bool
             case WEB_CONNECTION -> webConnect;
             case COMMAND_EXECUTION -> command;
             case SOCKET_CONNECTION -> socket;
+            case ENTROPY -> entropy;
         };
     }
 }
\ No newline at end of file
@@ -2,19 +2,36 @@ package dev.mark.code.impl;
 
 import dev.mark.code.api.Jar;
 import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.api.model.Verdict;
+import dev.mark.code.impl.batch.ClassResultCache;
+import dev.mark.code.impl.graph.CallGraph;
+import dev.mark.code.impl.graph.Reachability;
+import dev.mark.code.impl.index.ReferenceIndex;
+import dev.mark.code.impl.resource.ResourceCheck;
+import dev.mark.code.impl.similarity.SimilarityCheck;
+import dev.mark.code.util.RiskEvaluator;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @SuppressWarnings("all")
 public class CheckJar {
 
     private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+    private static final Object SCAN_LOCK = new Object();
 
     public static CompletableFuture<List<ThreatResult>> performAllChecks(
             File file,
@@ -25,35 +42,174 @@ public class CheckJar {
             boolean checkSocket,
             Consumer<String> progressCallback) {
 
+        CheckConfig config = new CheckConfig(checkUrl, checkEncrypt, checkWebConnect, checkCommand, checkSocket, true);
+        return performAllChecks(file, config, ScanOptions.full(), progressCallback);
+    }
+
+    public static CompletableFuture<List<ThreatResult>> performAllChecks(
+            File file,
+            CheckConfig config,
+            ScanOptions options,
+            Consumer<String> progressCallback) {
+
+        return performAllChecks(file, config, options, null, progressCallback);
+    }
+
+    public static CompletableFuture<List<ThreatResult>> performAllChecks(
+            File file,
+            CheckConfig config,
+            ClassResultCache classCache,
+            Consumer<String> progressCallback) {
+
+        return performAllChecks(file, config, ScanOptions.full(), classCache, progressCallback);
+    }
+
+    private static CompletableFuture<List<ThreatResult>> performAllChecks(
+            File file,
+            CheckConfig config,
+            ScanOptions options,
+            ClassResultCache classCache,
+            Consumer<String> progressCallback) {
+
         return CompletableFuture.supplyAsync(() -> {
             try {
-                loadJarWithProgress(file, progressCallback);
-                CheckConfig config = new CheckConfig(checkUrl, checkEncrypt, checkWebConnect, checkCommand, checkSocket);
-                List<ThreatResult> results = executeChecks(config, progressCallback);
+                synchronized (SCAN_LOCK) {
+                    try {
+                        loadJarWithProgress(file, classCache, progressCallback);
+                        List<ThreatResult> results = new ArrayList<>(Jar.findings);
+                        results.addAll(runChecks(config, options, progressCallback));
+                        results = reuseCachedResults(results, progressCallback);
+                        results = attachCallerChains(results, progressCallback);
+                        recordReferences(file, progressCallback);
 
-                progressCallback.accept("Analysis complete! Found " + results.size() + " threats");
-                return results;
+                        progressCallback.accept("Analysis complete! Found " + results.size() + " threats");
+                        return results;
+                    } finally {
+                        Jar.releaseFiles();
+                    }
+                }
 
             } catch (Exception e) {
                 progressCallback.accept("Error during analysis: " + e.getMessage());
-                e.printStackTrace();
-                return new ArrayList<>();
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    public static CompletableFuture<Verdict> performVerdict(
+            File file,
+            CheckConfig config,
+            ThreatResult.RiskLevel threshold,
+            Consumer<String> progressCallback) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                synchronized (SCAN_LOCK) {
+                    try {
+                        loadJarWithProgress(file, null, progressCallback);
+                        progressCallback.accept("Searching for findings at or above " + threshold.getDisplayName() + "...");
+
+                        Verdict verdict = VerdictScan.run(config, threshold, Jar.findings);
+                        if (verdict.isRejected()) {
+                            ThreatResult trigger = attachCallerChains(List.of(verdict.trigger()), progressCallback).get(0);
+                            verdict = new Verdict(threshold, trigger, verdict.analyzedClasses(), verdict.totalClasses());
+                        }
+                        progressCallback.accept("Verdict: " + verdict);
+                        return verdict;
+                    } finally {
+                        Jar.releaseFiles();
+                    }
+                }
+
+            } catch (Exception e) {
+                progressCallback.accept("Error during verdict: " + e.getMessage());
+                throw new CompletionException(e);
             }
         }, EXECUTOR);
     }
 
-    private static void loadJarWithProgress(File file, Consumer<String> progressCallback) throws Exception {
+    private static void loadJarWithProgress(File file, ClassResultCache classCache, Consumer<String> progressCallback) throws Exception {
         progressCallback.accept("Loading JAR file...");
-        Jar.loadJar(file);
+        Jar.loadJar(file, classCache);
 
         var stats = Jar.getJarStats();
         int totalClasses = ((Number) stats.get("totalClasses")).intValue();
         int totalFiles = ((Number) stats.get("totalFiles")).intValue();
+        int allowlisted = ((Number) stats.get("allowlistedClasses")).intValue();
+        int cached = ((Number) stats.get("cachedClasses")).intValue();
 
-        progressCallback.accept(String.format("Loaded %d classes, %d files", totalClasses, totalFiles));
+        progressCallback.accept(String.format("Loaded %d classes, %d files, %d allowlisted classes excluded from checks", totalClasses, totalFiles, allowlisted));
+        if (classCache != null) {
+            progressCallback.accept(String.format("Reusing results of %d classes already analyzed in this batch", cached));
+        }
     }
 
-    private static List<ThreatResult> executeChecks(CheckConfig config, Consumer<String> progressCallback) {
+    private static List<ThreatResult> reuseCachedResults(List<ThreatResult> results, Consumer<String> progressCallback) {
+        ClassResultCache classCache = Jar.getClassCache();
+        if (classCache == null) return results;
+
+        Map<String, List<ThreatResult>> byClass = results.stream()
+                .filter(result -> result.getType() != ThreatResult.ThreatType.SIGNATURE)
+                .filter(result -> Jar.getCacheKey(result.getClassName()) != null)
+                .collect(Collectors.groupingBy(ThreatResult::getClassName));
+
+        for (ClassNode classNode : Jar.getCheckedClasses()) {
+            String key = Jar.getCacheKey(classNode.name);
+            List<ThreatResult> classResults = byClass.getOrDefault(classNode.name, List.of());
+            if (key != null && classResults.stream().noneMatch(CheckJar::dependsOnEmbeddedClasses)) {
+                classCache.put(key, classResults);
+            }
+        }
+
+        List<ThreatResult> combined = new ArrayList<>(results);
+        combined.addAll(Jar.getCachedResults());
+        progressCallback.accept(String.format("Reused %d cached findings", combined.size() - results.size()));
+        return combined;
+    }
+
+    private static boolean dependsOnEmbeddedClasses(ThreatResult result) {
+        return result.getType() == ThreatResult.ThreatType.EMBEDDED_PAYLOAD || result.getType() == ThreatResult.ThreatType.HOSTILE_ARCHIVE;
+    }
+
+    private static List<ThreatResult> runChecks(CheckConfig config, ScanOptions options, Consumer<String> progressCallback) {
+        List<ClassNode> checkedClasses = Jar.getCheckedClasses();
+        if (!options.reachableOnly()) {
+            return executeChecks(config, checkedClasses, methodNode -> true, progressCallback);
+        }
+
+        progressCallback.accept("Computing code reachable from entry points...");
+        Set<MethodNode> reachable = Reachability.compute();
+        List<ClassNode> reachableClasses = checkedClasses.stream()
+                .filter(classNode -> classNode.methods.stream().anyMatch(reachable::contains))
+                .toList();
+        progressCallback.accept(String.format("Reachable: %d methods in %d of %d classes", reachable.size(), reachableClasses.size(), checkedClasses.size()));
+
+        if (options.reportUnreachable()) {
+            return downgradeUnreachable(executeChecks(config, checkedClasses, methodNode -> true, progressCallback), reachable);
+        }
+        return executeChecks(config, reachableClasses, reachable::contains, progressCallback);
+    }
+
+    private static List<ThreatResult> downgradeUnreachable(List<ThreatResult> results, Set<MethodNode> reachable) {
+        List<ThreatResult> adjusted = new ArrayList<>(results.size());
+        for (ThreatResult result : results) {
+            adjusted.add(isReachable(result, reachable)
+                    ? result
+                    : result.withRiskLevel(RiskEvaluator.reduceRisk(result.getRiskLevel()), "Not reachable from entry points"));
+        }
+        return adjusted;
+    }
+
+    private static boolean isReachable(ThreatResult result, Set<MethodNode> reachable) {
+        ClassNode classNode = Jar.getClassNode(result.getClassName());
+        if (classNode == null) return true;
+
+        return classNode.methods.stream().anyMatch(methodNode -> methodNode.name.equals(result.getMethodName())
+                && (result.getMethodDesc() == null || methodNode.desc.equals(result.getMethodDesc()))
+                && reachable.contains(methodNode));
+    }
+
+    private static List<ThreatResult> executeChecks(CheckConfig config, List<ClassNode> classes, Predicate<MethodNode> methodFilter, Consumer<String> progressCallback) {
         List<ThreatResult> allResults = new ArrayList<>();
         var checkerTypes = ThreatCheckerFactory.CheckerType.values();
 
@@ -71,7 +227,7 @@ public class CheckJar {
                     checkerType.getDisplayName(), completedChecks, totalChecks));
 
             try {
-                List<ThreatResult> results = performSingleCheck(checkerType);
+                List<ThreatResult> results = performSingleCheck(checkerType, classes, methodFilter);
                 allResults.addAll(results);
 
                 progressCallback.accept(String.format("Completed %s - found %d threats",
@@ -83,12 +239,49 @@ public class CheckJar {
             }
         }
 
+        if (SimilarityCheck.isEnabled()) {
+            progressCallback.accept("Comparing classes against the malware similarity corpus...");
+            List<ThreatResult> results = SimilarityCheck.performCheck(classes);
+            allResults.addAll(results);
+            progressCallback.accept(String.format("Completed %s - found %d threats",
+                    ThreatResult.ThreatType.SIMILARITY.getDisplayName(), results.size()));
+        }
+
+        if (!Jar.files.isEmpty()) {
+            progressCallback.accept(String.format("Scanning %d non-class resources...", Jar.files.size()));
+            List<ThreatResult> results = ResourceCheck.performCheck(Jar.files, config.isEnabled(ThreatCheckerFactory.CheckerType.ENTROPY));
+            allResults.addAll(results);
+            progressCallback.accept(String.format("Completed %s - found %d threats",
+                    ThreatResult.ThreatType.RESOURCE.getDisplayName(), results.size()));
+        }
+
         return allResults;
     }
 
-    private static List<ThreatResult> performSingleCheck(ThreatCheckerFactory.CheckerType checkerType) {
+    private static void recordReferences(File file, Consumer<String> progressCallback) {
+        if (!ReferenceIndex.isEnabled()) return;
+
+        try {
+            int terms = ReferenceIndex.record(file, Jar.classes);
+            progressCallback.accept(String.format("Recorded %d referenced names in the reference index", terms));
+        } catch (IOException e) {
+            progressCallback.accept("Error writing reference index: " + e.getMessage());
+        }
+    }
+
+    private static List<ThreatResult> attachCallerChains(List<ThreatResult> results, Consumer<String> progressCallback) {
+        if (results.isEmpty()) return results;
+
+        progressCallback.accept("Building call graph...");
+        CallGraph callGraph = CallGraph.build(Jar.classes);
+        progressCallback.accept(String.format("Call graph: %d methods, %d call edges", callGraph.methodCount(), callGraph.edgeCount()));
+
+        return callGraph.attachCallerChains(results);
+    }
+
+    private static List<ThreatResult> performSingleCheck(ThreatCheckerFactory.CheckerType checkerType, List<ClassNode> classes, Predicate<MethodNode> methodFilter) {
         AbstractThreatChecker checker = ThreatCheckerFactory.getChecker(checkerType);
-        return checker.performCheck(Jar.classes);
+        return checker.performCheck(classes, methodFilter);
     }
 
     public static void shutdown() {
@@ -0,0 +1,153 @@
+package dev.mark.code.impl;
+
+import dev.mark.code.api.Jar;
+import dev.mark.code.api.model.ThreatResult;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+public final class ClassScheduler {
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "jar-checker-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @FunctionalInterface
+    public interface ClassTask {
+        void analyze(ClassNode classNode, List<ThreatResult> results);
+    }
+
+    public static List<ThreatResult> execute(List<ClassNode> classes, ClassTask task) {
+        ClassNode[] ordered = orderByCost(classes.toArray(new ClassNode[0]));
+        if (ordered.length == 0) return new ArrayList<>();
+
+        int workerCount = Math.min(PARALLELISM, ordered.length);
+        List<ConcurrentLinkedDeque<ClassNode>> queues = dealOut(ordered, workerCount);
+
+        return merge(runWorkers(workerCount, id -> drain(id, queues, task)));
+    }
+
+    public static List<ThreatResult> executeInOrder(ClassNode[] ordered, ClassTask task, AtomicBoolean stop) {
+        if (ordered.length == 0) return new ArrayList<>();
+
+        AtomicInteger cursor = new AtomicInteger();
+        int workerCount = Math.min(PARALLELISM, ordered.length);
+
+        return merge(runWorkers(workerCount, id -> {
+            List<ThreatResult> buffer = new ArrayList<>();
+            int next;
+            while (!stop.get() && (next = cursor.getAndIncrement()) < ordered.length) {
+                task.analyze(ordered[next], buffer);
+            }
+            return buffer;
+        }));
+    }
+
+    public static long estimateCost(ClassNode classNode) {
+        long instructions = 0;
+
+        if (classNode.methods != null) {
+            for (MethodNode methodNode : classNode.methods) {
+                if (methodNode.instructions != null) {
+                    instructions += methodNode.instructions.size();
+                }
+            }
+        }
+
+        return instructions + Jar.getClassSize(classNode.name) / 4;
+    }
+
+    private static ClassNode[] orderByCost(ClassNode[] classes) {
+        long[] keys = new long[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            long cost = Math.min(estimateCost(classes[i]), Integer.MAX_VALUE);
+            keys[i] = (cost << 32) | i;
+        }
+
+        Arrays.sort(keys);
+
+        ClassNode[] ordered = new ClassNode[classes.length];
+        for (int i = 0; i < keys.length; i++) {
+            ordered[i] = classes[(int) keys[keys.length - 1 - i]];
+        }
+        return ordered;
+    }
+
+    private static List<ConcurrentLinkedDeque<ClassNode>> dealOut(ClassNode[] ordered, int workerCount) {
+        List<ConcurrentLinkedDeque<ClassNode>> queues = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            queues.add(new ConcurrentLinkedDeque<>());
+        }
+
+        for (int i = 0; i < ordered.length; i++) {
+            queues.get(i % workerCount).addLast(ordered[i]);
+        }
+        return queues;
+    }
+
+    private static List<List<ThreatResult>> runWorkers(int workerCount, IntFunction<List<ThreatResult>> worker) {
+        List<Future<List<ThreatResult>>> futures = new ArrayList<>(workerCount);
+        for (int id = 0; id < workerCount; id++) {
+            int workerId = id;
+            futures.add(WORKERS.submit(() -> worker.apply(workerId)));
+        }
+
+        List<List<ThreatResult>> buffers = new ArrayList<>(futures.size());
+        for (Future<List<ThreatResult>> future : futures) {
+            buffers.add(await(future));
+        }
+        return buffers;
+    }
+
+    private static List<ThreatResult> drain(int id, List<ConcurrentLinkedDeque<ClassNode>> queues, ClassTask task) {
+        List<ThreatResult> buffer = new ArrayList<>();
+        ConcurrentLinkedDeque<ClassNode> own = queues.get(id);
+
+        ClassNode next;
+        while ((next = own.pollFirst()) != null || (next = steal(id, queues)) != null) {
+            task.analyze(next, buffer);
+        }
+        return buffer;
+    }
+
+    private static ClassNode steal(int id, List<ConcurrentLinkedDeque<ClassNode>> queues) {
+        int count = queues.size();
+        for (int offset = 1; offset < count; offset++) {
+            ClassNode stolen = queues.get((id + offset) % count).pollLast();
+            if (stolen != null) return stolen;
+        }
+        return null;
+    }
+
+    private static List<ThreatResult> await(Future<List<ThreatResult>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analysis worker failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static List<ThreatResult> merge(List<List<ThreatResult>> buffers) {
+        int total = buffers.stream().mapToInt(List::size).sum();
+        List<ThreatResult> merged = new ArrayList<>(total);
+        buffers.forEach(merged::addAll);
+        return merged;
+    }
+}
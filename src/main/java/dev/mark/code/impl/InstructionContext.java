@@ -1,6 +1,25 @@
 package dev.mark.code.impl;
 
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
 public class InstructionContext {
-    public String lastString;
-    public Integer lastInteger;
-}
\ No newline at end of file
+    public MethodNode methodNode;
+    public AbstractInsnNode instruction;
+    public int lastInteger;
+
+    public void begin(MethodNode methodNode) {
+        reset();
+        this.methodNode = methodNode;
+    }
+
+    public void reset() {
+        methodNode = null;
+        instruction = null;
+        lastInteger = 0;
+    }
+
+    public void setLastInteger(int value) {
+        lastInteger = value;
+    }
+}
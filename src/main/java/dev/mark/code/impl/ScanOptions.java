@@ -0,0 +1,7 @@
+package dev.mark.code.impl;
+
+public record ScanOptions(boolean reachableOnly, boolean reportUnreachable) {
+    public static ScanOptions full() {
+        return new ScanOptions(false, false);
+    }
+}
@@ -12,7 +12,8 @@ public class ThreatCheckerFactory {
         ENCRYPTION("Encryption/Crypto"),
         WEB_CONNECTION("Web Connections"),
         COMMAND_EXECUTION("Command Execution"),
-        SOCKET_CONNECTION("Socket Connections");
+        SOCKET_CONNECTION("Socket Connections"),
+        ENTROPY("Entropy Analysis");
 
         @Getter
         private final String displayName;
@@ -26,7 +27,8 @@ public class ThreatCheckerFactory {
             CheckerType.URL, new UrlCheck(),
             CheckerType.ENCRYPTION, new FileEncryptCheck(),
             CheckerType.WEB_CONNECTION, new WebConnectCheck(),
-            CheckerType.COMMAND_EXECUTION, new CommandExecCheck()
+            CheckerType.COMMAND_EXECUTION, new CommandExecCheck(),
+            CheckerType.ENTROPY, new EntropyCheck()
     );
 
     public static AbstractThreatChecker getChecker(CheckerType type) {
@@ -0,0 +1,133 @@
+package dev.mark.code.impl;
+
+import dev.mark.code.api.Jar;
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.api.model.Verdict;
+import dev.mark.code.impl.resource.ResourceCheck;
+import dev.mark.code.impl.similarity.SimilarityCheck;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class VerdictScan {
+
+    private record Candidate(ClassNode classNode, int tier, long cost) {}
+
+    public static Verdict run(CheckConfig config, ThreatResult.RiskLevel threshold, List<ThreatResult> loadFindings) {
+        synchronized (loadFindings) {
+            for (ThreatResult finding : loadFindings) {
+                if (finding.getRiskLevel().compareTo(threshold) >= 0) {
+                    return new Verdict(threshold, finding, 0, Jar.classes.size());
+                }
+            }
+        }
+
+        for (ThreatResult finding : ResourceCheck.performCheck(Jar.files, config.isEnabled(ThreatCheckerFactory.CheckerType.ENTROPY))) {
+            if (finding.getRiskLevel().compareTo(threshold) >= 0) {
+                return new Verdict(threshold, finding, 0, Jar.classes.size());
+            }
+        }
+
+        List<AbstractThreatChecker> checkers = enabledCheckers(config);
+        ClassNode[] ordered = prioritize(Jar.getCheckedClasses());
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<ThreatResult> trigger = new AtomicReference<>();
+        AtomicInteger analyzed = new AtomicInteger();
+
+        ClassScheduler.executeInOrder(ordered, (classNode, results) -> {
+            analyzed.incrementAndGet();
+
+            for (AbstractThreatChecker checker : checkers) {
+                checker.analyzeClass(classNode, results);
+                if (checkTrigger(results, threshold, trigger, stop)) break;
+            }
+
+            if (!stop.get()) {
+                SimilarityCheck.analyzeClass(classNode, results);
+                checkTrigger(results, threshold, trigger, stop);
+            }
+
+            results.clear();
+        }, stop);
+
+        return new Verdict(threshold, trigger.get(), analyzed.get(), ordered.length);
+    }
+
+    private static boolean checkTrigger(List<ThreatResult> results, ThreatResult.RiskLevel threshold,
+                                        AtomicReference<ThreatResult> trigger, AtomicBoolean stop) {
+        for (ThreatResult result : results) {
+            if (result.getRiskLevel().compareTo(threshold) >= 0 && trigger.compareAndSet(null, result)) {
+                stop.set(true);
+            }
+        }
+        results.clear();
+        return stop.get();
+    }
+
+    private static List<AbstractThreatChecker> enabledCheckers(CheckConfig config) {
+        List<AbstractThreatChecker> checkers = new ArrayList<>();
+        for (var checkerType : ThreatCheckerFactory.CheckerType.values()) {
+            AbstractThreatChecker checker = ThreatCheckerFactory.getChecker(checkerType);
+            if (config.isEnabled(checkerType) && checker != null) {
+                checkers.add(checker);
+            }
+        }
+        return checkers;
+    }
+
+    private static ClassNode[] prioritize(List<ClassNode> classes) {
+        Set<String> entryNeighbourhood = findEntryNeighbourhood();
+        List<Candidate> candidates = new ArrayList<>(classes.size());
+
+        synchronized (classes) {
+            for (ClassNode classNode : classes) {
+                candidates.add(new Candidate(classNode, tierOf(classNode, entryNeighbourhood), ClassScheduler.estimateCost(classNode)));
+            }
+        }
+
+        candidates.sort(Comparator.comparingInt(Candidate::tier).thenComparingLong(Candidate::cost));
+        return candidates.stream().map(Candidate::classNode).toArray(ClassNode[]::new);
+    }
+
+    private static int tierOf(ClassNode classNode, Set<String> entryNeighbourhood) {
+        boolean suspicious = Jar.hasSuspiciousReferences(classNode.name);
+        boolean nearEntry = entryNeighbourhood.contains(classNode.name);
+
+        if (suspicious && nearEntry) return 0;
+        if (suspicious) return 1;
+        if (nearEntry) return 2;
+        return 3;
+    }
+
+    private static Set<String> findEntryNeighbourhood() {
+        Set<String> neighbourhood = new HashSet<>();
+        String mainClass = Jar.manifest.get("Main-Class");
+        if (mainClass == null || mainClass.isBlank()) return neighbourhood;
+
+        ClassNode mainNode = Jar.getClassNode(mainClass.trim().replace('.', '/'));
+        if (mainNode == null) return neighbourhood;
+
+        neighbourhood.add(mainNode.name);
+        for (MethodNode methodNode : mainNode.methods) {
+            for (AbstractInsnNode instruction = methodNode.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+                switch (instruction) {
+                    case MethodInsnNode methodInsnNode -> addIfLoaded(methodInsnNode.owner, neighbourhood);
+                    case TypeInsnNode typeInsnNode when typeInsnNode.getOpcode() == Opcodes.NEW -> addIfLoaded(typeInsnNode.desc, neighbourhood);
+                    default -> {}
+                }
+            }
+        }
+        return neighbourhood;
+    }
+
+    private static void addIfLoaded(String className, Set<String> neighbourhood) {
+        if (Jar.getClassNode(className) != null) {
+            neighbourhood.add(className);
+        }
+    }
+}
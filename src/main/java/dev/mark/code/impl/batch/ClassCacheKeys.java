@@ -0,0 +1,176 @@
+package dev.mark.code.impl.batch;
+
+import dev.mark.code.util.HashUtils;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public final class ClassCacheKeys {
+
+    public static Map<String, String> compute(List<ClassNode> classes, Map<String, String> contentHashes) {
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        for (ClassNode classNode : classes) {
+            if (contentHashes.containsKey(classNode.name) && !ids.containsKey(classNode.name)) {
+                ids.put(classNode.name, names.size());
+                names.add(classNode.name);
+            }
+        }
+
+        int[][] dependencies = new int[names.size()][];
+        List<Set<Integer>> referrers = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            referrers.add(new TreeSet<>());
+        }
+        for (ClassNode classNode : classes) {
+            Integer id = ids.get(classNode.name);
+            if (id == null || dependencies[id] != null) continue;
+
+            Set<Integer> targets = new TreeSet<>();
+            for (String referenced : references(classNode)) {
+                Integer target = ids.get(referenced);
+                if (target != null && target.intValue() != id) {
+                    targets.add(target);
+                    referrers.get(target).add(id);
+                }
+            }
+            dependencies[id] = targets.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        String[] closureHashes = closureHashes(names, dependencies, contentHashes);
+
+        Map<String, String> keys = new HashMap<>();
+        for (int id = 0; id < names.size(); id++) {
+            StringBuilder context = new StringBuilder(names.get(id)).append('\n').append(closureHashes[id]);
+            new TreeSet<>(referrers.get(id).stream().map(referrer -> closureHashes[referrer]).toList())
+                    .forEach(hash -> context.append('\n').append(hash));
+            keys.put(names.get(id), sha256(context));
+        }
+        return keys;
+    }
+
+    // Tarjan emits each strongly connected component after the components it depends on.
+    private static String[] closureHashes(List<String> names, int[][] dependencies, Map<String, String> contentHashes) {
+        int count = names.size();
+        int[] order = new int[count];
+        int[] lowLink = new int[count];
+        int[] nextEdge = new int[count];
+        int[] component = new int[count];
+        boolean[] onStack = new boolean[count];
+        Arrays.fill(order, -1);
+        Arrays.fill(component, -1);
+
+        Deque<Integer> stack = new ArrayDeque<>();
+        Deque<Integer> path = new ArrayDeque<>();
+        List<String> componentHashes = new ArrayList<>();
+        int visited = 0;
+
+        for (int root = 0; root < count; root++) {
+            if (order[root] != -1) continue;
+
+            order[root] = lowLink[root] = visited++;
+            stack.push(root);
+            onStack[root] = true;
+            path.push(root);
+
+            while (!path.isEmpty()) {
+                int node = path.peek();
+                if (nextEdge[node] < dependencies[node].length) {
+                    int target = dependencies[node][nextEdge[node]++];
+                    if (order[target] == -1) {
+                        order[target] = lowLink[target] = visited++;
+                        stack.push(target);
+                        onStack[target] = true;
+                        path.push(target);
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], order[target]);
+                    }
+                    continue;
+                }
+
+                path.pop();
+                if (!path.isEmpty()) {
+                    lowLink[path.peek()] = Math.min(lowLink[path.peek()], lowLink[node]);
+                }
+                if (lowLink[node] != order[node]) continue;
+
+                List<Integer> members = new ArrayList<>();
+                int member;
+                do {
+                    member = stack.pop();
+                    onStack[member] = false;
+                    component[member] = componentHashes.size();
+                    members.add(member);
+                } while (member != node);
+                componentHashes.add(componentHash(members, names, dependencies, component, componentHashes, contentHashes));
+            }
+        }
+
+        String[] hashes = new String[count];
+        for (int id = 0; id < count; id++) {
+            hashes[id] = componentHashes.get(component[id]);
+        }
+        return hashes;
+    }
+
+    private static String componentHash(List<Integer> members, List<String> names, int[][] dependencies, int[] component,
+                                        List<String> componentHashes, Map<String, String> contentHashes) {
+        int self = componentHashes.size();
+        Set<String> memberHashes = new TreeSet<>();
+        Set<String> dependencyHashes = new TreeSet<>();
+        for (int member : members) {
+            memberHashes.add(names.get(member) + '=' + contentHashes.get(names.get(member)));
+            for (int target : dependencies[member]) {
+                if (component[target] != self) {
+                    dependencyHashes.add(componentHashes.get(component[target]));
+                }
+            }
+        }
+
+        StringBuilder context = new StringBuilder();
+        memberHashes.forEach(hash -> context.append(hash).append('\n'));
+        dependencyHashes.forEach(hash -> context.append("->").append(hash).append('\n'));
+        return sha256(context);
+    }
+
+    private static String sha256(CharSequence context) {
+        return HashUtils.toHex(HashUtils.sha256(context.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Set<String> references(ClassNode classNode) {
+        Set<String> references = new HashSet<>();
+        if (classNode.superName != null) {
+            references.add(classNode.superName);
+        }
+        references.addAll(classNode.interfaces);
+
+        for (MethodNode methodNode : classNode.methods) {
+            for (AbstractInsnNode insn = methodNode.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                switch (insn) {
+                    case MethodInsnNode methodInsn -> references.add(methodInsn.owner);
+                    case FieldInsnNode fieldInsn -> references.add(fieldInsn.owner);
+                    case TypeInsnNode typeInsn -> references.add(typeInsn.desc);
+                    case LdcInsnNode ldcInsn -> addConstant(ldcInsn.cst, references);
+                    case InvokeDynamicInsnNode indyInsn -> {
+                        for (Object arg : indyInsn.bsmArgs) {
+                            addConstant(arg, references);
+                        }
+                    }
+                    default -> {}
+                }
+            }
+        }
+        return references;
+    }
+
+    private static void addConstant(Object constant, Set<String> references) {
+        if (constant instanceof Type type && type.getSort() == Type.OBJECT) {
+            references.add(type.getInternalName());
+        } else if (constant instanceof Handle handle) {
+            references.add(handle.getOwner());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.mark.code.impl.batch;
+
+import dev.mark.code.api.model.ThreatResult;
+
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ClassResultCache {
+
+    private static final int MAX_ENTRIES = 200_000;
+
+    private record Key(long high, long low) {
+        static Key of(String hex) {
+            return new Key(HexFormat.fromHexDigitsToLong(hex, 0, 16), HexFormat.fromHexDigitsToLong(hex, 16, 32));
+        }
+    }
+
+    private final Map<Key, List<ThreatResult>> results;
+    private long hits;
+    private long misses;
+    private long stored;
+
+    public ClassResultCache() {
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<ThreatResult>> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    public synchronized List<ThreatResult> lookup(String key) {
+        List<ThreatResult> cached = results.get(Key.of(key));
+        if (cached != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return cached;
+    }
+
+    public synchronized void put(String key, List<ThreatResult> classResults) {
+        if (results.putIfAbsent(Key.of(key), List.copyOf(classResults)) == null) {
+            stored++;
+        }
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public synchronized long stored() {
+        return stored;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+}
@@ -4,6 +4,10 @@ import dev.mark.code.api.model.ThreatResult;
 import dev.mark.code.constants.ThreatPatterns;
 import dev.mark.code.impl.AbstractThreatChecker;
 import dev.mark.code.impl.InstructionContext;
+import dev.mark.code.impl.deobf.PayloadDecoder;
+import dev.mark.code.impl.rules.CallRuleTable;
+import dev.mark.code.impl.rules.RuleProfiler;
+import dev.mark.code.impl.rules.StringRuleSet;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
@@ -11,35 +15,49 @@ import java.util.List;
 
 public class CommandExecCheck extends AbstractThreatChecker {
 
+    private static final String STRING_ARRAY_RULE = "command.string-array";
+
+    private static final CallRuleTable<CommandExecCheck> CALL_RULES = CallRuleTable.<CommandExecCheck>builder()
+            .owners("command.exec-call", ThreatPatterns.COMMAND_EXECUTION_CLASSES, CommandExecCheck::handleCommandExecutionMethod)
+            .ownerMethods("command.system-info", "java/lang/System", ThreatPatterns.SYSTEM_INFO_METHODS,
+                    (checker, methodInsnNode, className, methodName, currentCommand, results) -> checker.handleSystemInfoMethod(methodInsnNode, className, methodName, results))
+            .build();
+
+    private static final StringRuleSet<CommandExecCheck> STRING_RULES = StringRuleSet.<CommandExecCheck>builder()
+            .rule("command.shell", CommandExecCheck::analyzeShellCommands)
+            .rule("command.dangerous", CommandExecCheck::analyzeDangerousCommands)
+            .rule("command.execution-flag", CommandExecCheck::analyzeExecutionFlags)
+            .firstMatchOnly()
+            .build();
+
     public CommandExecCheck() {
         super(ThreatResult.ThreatType.COMMAND_EXECUTION);
     }
 
     @Override
     protected void analyzeMethod(ClassNode classNode, MethodNode methodNode, List<ThreatResult> results) {
-        InstructionContext context = new InstructionContext();
-        analyzeInstructionsWithContext(classNode, methodNode, results, context);
-    }
-
-    private void analyzeInstructionsWithContext(ClassNode classNode, MethodNode methodNode, List<ThreatResult> results, InstructionContext context) {
-        if (methodNode.instructions == null) return;
-
-        AbstractInsnNode[] instructions = methodNode.instructions.toArray();
-
-        for (AbstractInsnNode instruction : instructions) {
-            processCommandInstruction(instruction, classNode, methodNode, context, results);
-        }
+        analyzeInstructions(classNode, methodNode, results);
     }
 
-    private void processCommandInstruction(AbstractInsnNode instruction, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
+    @Override
+    protected void processInstruction(AbstractInsnNode instruction, ClassNode classNode, MethodNode methodNode, InstructionContext context, List<ThreatResult> results) {
         switch (instruction) {
-            case LdcInsnNode ldcNode when ldcNode.cst instanceof String stringValue -> context.lastString = analyzeCommandString(stringValue, classNode.name, methodNode.name, results);
-            case MethodInsnNode methodInsnNode -> analyzeMethodCall(methodInsnNode, classNode.name, methodNode.name, context.lastString, results);
-            case TypeInsnNode typeInsnNode when isStringArrayCreation(typeInsnNode) -> handleStringArrayCreation(typeInsnNode, classNode.name, methodNode.name, results);
+            case LdcInsnNode ldcNode when ldcNode.cst instanceof String stringValue -> processString(stringValue, classNode, methodNode, context, results);
+            case MethodInsnNode methodInsnNode -> processMethodCall(methodInsnNode, classNode, methodNode, context, results);
+            case TypeInsnNode typeInsnNode when isStringArrayCreation(typeInsnNode) -> {
+                long start = RuleProfiler.start();
+                handleStringArrayCreation(typeInsnNode, classNode.name, methodNode.name, results);
+                RuleProfiler.record(STRING_ARRAY_RULE, start, true);
+            }
             default -> {}
         }
     }
 
+    @Override
+    protected void analyzeStringConstant(String value, String className, String methodName, List<ThreatResult> results) {
+        STRING_RULES.apply(this, value, className, methodName, results);
+    }
+
     private boolean isStringArrayCreation(TypeInsnNode typeInsnNode) {
         return typeInsnNode.getOpcode() == Opcodes.ANEWARRAY && "java/lang/String".equals(typeInsnNode.desc);
     }
@@ -52,17 +70,8 @@ public class CommandExecCheck extends AbstractThreatChecker {
         ));
     }
 
-    private String analyzeCommandString(String value, String className, String methodName, List<ThreatResult> results) {
+    private void analyzeShellCommands(String value, String className, String methodName, List<ThreatResult> results) {
         String lowerValue = value.toLowerCase();
-
-        if (analyzeShellCommands(value, lowerValue, className, methodName, results)) return value;
-        if (analyzeDangerousCommands(value, lowerValue, className, methodName, results)) return value;
-        if (analyzeExecutionFlags(value, lowerValue, className, methodName, results)) return value;
-
-        return null;
-    }
-
-    private boolean analyzeShellCommands(String value, String lowerValue, String className, String methodName, List<ThreatResult> results) {
         for (String shellCommand : ThreatPatterns.SHELL_COMMANDS) {
             if (lowerValue.contains(shellCommand)) {
                 results.add(createThreatResult(
@@ -70,13 +79,13 @@ public class CommandExecCheck extends AbstractThreatChecker {
                         "Shell command found: " + shellCommand,
                         "Command string: " + truncateString(value, 100)
                 ));
-                return true;
+                return;
             }
         }
-        return false;
     }
 
-    private boolean analyzeDangerousCommands(String value, String lowerValue, String className, String methodName, List<ThreatResult> results) {
+    private void analyzeDangerousCommands(String value, String className, String methodName, List<ThreatResult> results) {
+        String lowerValue = value.toLowerCase();
         for (String dangerousCommand : ThreatPatterns.DANGEROUS_COMMANDS) {
             if (lowerValue.contains(dangerousCommand)) {
                 results.add(createThreatResult(
@@ -84,13 +93,13 @@ public class CommandExecCheck extends AbstractThreatChecker {
                         "Dangerous command: " + dangerousCommand,
                         "Full command: " + truncateString(value, 100)
                 ));
-                return true;
+                return;
             }
         }
-        return false;
     }
 
-    private boolean analyzeExecutionFlags(String value, String lowerValue, String className, String methodName, List<ThreatResult> results) {
+    private void analyzeExecutionFlags(String value, String className, String methodName, List<ThreatResult> results) {
+        String lowerValue = value.toLowerCase();
         for (String flag : ThreatPatterns.EXECUTION_FLAGS) {
             if (lowerValue.contains(flag)) {
                 results.add(createThreatResult(
@@ -98,23 +107,38 @@ public class CommandExecCheck extends AbstractThreatChecker {
                         "Command execution flag detected",
                         "Command: " + truncateString(value, 100)
                 ));
-                return true;
+                return;
             }
         }
-        return false;
     }
 
     @Override
-    protected void analyzeMethodCall(MethodInsnNode methodInsnNode, String className, String methodName, String currentCommand, List<ThreatResult> results) {
-        if (ThreatPatterns.COMMAND_EXECUTION_CLASSES.contains(methodInsnNode.owner)) {
-            handleCommandExecutionMethod(methodInsnNode, className, methodName, currentCommand, results);
-        } else if (isSystemInfoMethod(methodInsnNode)) {
-            handleSystemInfoMethod(methodInsnNode, className, methodName, results);
+    protected boolean usesCallContext(MethodInsnNode methodInsnNode) {
+        return CALL_RULES.lookup(methodInsnNode.owner, methodInsnNode.name) != null;
+    }
+
+    @Override
+    protected String selectCallContext(List<String> reachingStrings) {
+        for (String value : reachingStrings) {
+            if (isCommandString(value)) return value;
+
+            for (PayloadDecoder.DecodedText text : PayloadDecoder.decode(value).texts()) {
+                if (isCommandString(text.text())) return text.text();
+            }
         }
+        return null;
+    }
+
+    private boolean isCommandString(String value) {
+        String lowerValue = value.toLowerCase();
+        return ThreatPatterns.SHELL_COMMANDS.stream().anyMatch(lowerValue::contains)
+                || ThreatPatterns.DANGEROUS_COMMANDS.stream().anyMatch(lowerValue::contains)
+                || ThreatPatterns.EXECUTION_FLAGS.stream().anyMatch(lowerValue::contains);
     }
 
-    private boolean isSystemInfoMethod(MethodInsnNode methodInsnNode) {
-        return "java/lang/System".equals(methodInsnNode.owner) && ThreatPatterns.SYSTEM_INFO_METHODS.contains(methodInsnNode.name);
+    @Override
+    protected void analyzeMethodCall(MethodInsnNode methodInsnNode, String className, String methodName, String currentCommand, List<ThreatResult> results) {
+        CALL_RULES.dispatch(this, methodInsnNode, className, methodName, currentCommand, results);
     }
 
     private void handleCommandExecutionMethod(MethodInsnNode methodInsnNode, String className, String methodName, String currentCommand, List<ThreatResult> results) {
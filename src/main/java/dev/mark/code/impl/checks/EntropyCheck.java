@@ -0,0 +1,56 @@
+package dev.mark.code.impl.checks;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.AbstractThreatChecker;
+import dev.mark.code.impl.rules.StringRuleSet;
+import dev.mark.code.util.Entropy;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class EntropyCheck extends AbstractThreatChecker {
+
+    private static final StringRuleSet<EntropyCheck> STRING_RULES = StringRuleSet.<EntropyCheck>builder()
+            .rule("entropy.string-constant", EntropyCheck::analyzeEncodedString)
+            .build();
+
+    public EntropyCheck() {
+        super(ThreatResult.ThreatType.ENTROPY);
+    }
+
+    @Override
+    protected void analyzeMethod(ClassNode classNode, MethodNode methodNode, List<ThreatResult> results) {
+        analyzeInstructions(classNode, methodNode, results);
+    }
+
+    @Override
+    protected void analyzeStringConstant(String value, String className, String methodName, List<ThreatResult> results) {
+        STRING_RULES.apply(this, value, className, methodName, results);
+    }
+
+    private void analyzeEncodedString(String value, String className, String methodName, List<ThreatResult> results) {
+        if (value.length() < Entropy.TEXT_WINDOW || !isLatin1(value)) return;
+
+        ByteBuffer bytes = ByteBuffer.wrap(value.getBytes(StandardCharsets.ISO_8859_1));
+        List<Entropy.Region> regions = Entropy.highEntropyRegions(bytes, Entropy.TEXT_WINDOW, Entropy.TEXT_THRESHOLD);
+        if (regions.isEmpty()) return;
+
+        double peak = regions.stream().mapToDouble(Entropy.Region::peak).max().orElse(0);
+        boolean binary = peak >= Entropy.PACKED_TEXT_THRESHOLD;
+        results.add(createThreatResult(
+                binary ? ThreatResult.RiskLevel.HIGH : ThreatResult.RiskLevel.MEDIUM, className, methodName,
+                binary ? "Binary data packed in string constant" : "High-entropy string constant",
+                String.format("%d chars, %.2f bits/char: %s", value.length(), peak, truncateString(value, 50))
+        ));
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) return false;
+        }
+        return true;
+    }
+}
@@ -3,6 +3,8 @@ package dev.mark.code.impl.checks;
 import dev.mark.code.api.model.ThreatResult;
 import dev.mark.code.constants.ThreatPatterns;
 import dev.mark.code.impl.AbstractThreatChecker;
+import dev.mark.code.impl.rules.CallRuleTable;
+import dev.mark.code.impl.rules.StringRuleSet;
 import dev.mark.code.util.PatternMatcher;
 import dev.mark.code.util.RiskEvaluator;
 import org.objectweb.asm.tree.ClassNode;
@@ -10,9 +12,25 @@ import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 
 import java.util.List;
+import java.util.Set;
 
 public class FileEncryptCheck extends AbstractThreatChecker {
 
+    private static final CallRuleTable<FileEncryptCheck> CALL_RULES = CallRuleTable.<FileEncryptCheck>builder()
+            .owners("crypto.crypto-call", ThreatPatterns.CRYPTO_CLASSES, FileEncryptCheck::handleCryptoMethod)
+            .owners("crypto.base64-call", ThreatPatterns.BASE64_CLASSES,
+                    (checker, methodInsnNode, className, methodName, currentAlgorithm, results) -> checker.handleBase64Method(methodInsnNode, className, methodName, results))
+            .owners("crypto.secure-random", Set.of("java/security/SecureRandom"),
+                    (checker, methodInsnNode, className, methodName, currentAlgorithm, results) -> checker.handleSecureRandomMethod(className, methodName, results))
+            .build();
+
+    private static final StringRuleSet<FileEncryptCheck> STRING_RULES = StringRuleSet.<FileEncryptCheck>builder()
+            .rule("crypto.encryption-algorithm", FileEncryptCheck::analyzeEncryptionAlgorithm)
+            .rule("crypto.hash-algorithm", FileEncryptCheck::analyzeHashAlgorithm)
+            .rule("crypto.mode", FileEncryptCheck::analyzeCryptoMode)
+            .rule("crypto.base64", FileEncryptCheck::analyzeBase64Data)
+            .build();
+
     public FileEncryptCheck() {
         super(ThreatResult.ThreatType.ENCRYPTION);
     }
@@ -24,10 +42,7 @@ public class FileEncryptCheck extends AbstractThreatChecker {
 
     @Override
     protected void analyzeStringConstant(String value, String className, String methodName, List<ThreatResult> results) {
-        analyzeEncryptionAlgorithm(value, className, methodName, results);
-        analyzeHashAlgorithm(value, className, methodName, results);
-        analyzeCryptoMode(value, className, methodName, results);
-        analyzeBase64Data(value, className, methodName, results);
+        STRING_RULES.apply(this, value, className, methodName, results);
     }
 
     private void analyzeEncryptionAlgorithm(String value, String className, String methodName, List<ThreatResult> results) {
@@ -90,13 +105,12 @@ public class FileEncryptCheck extends AbstractThreatChecker {
 
     @Override
     protected void analyzeMethodCall(MethodInsnNode methodInsnNode, String className, String methodName, String currentAlgorithm, List<ThreatResult> results) {
-        if (ThreatPatterns.CRYPTO_CLASSES.contains(methodInsnNode.owner)) {
-            handleCryptoMethod(methodInsnNode, className, methodName, currentAlgorithm, results);
-        } else if (ThreatPatterns.BASE64_CLASSES.contains(methodInsnNode.owner)) {
-            handleBase64Method(methodInsnNode, className, methodName, results);
-        } else if ("java/security/SecureRandom".equals(methodInsnNode.owner)) {
-            handleSecureRandomMethod(className, methodName, results);
-        }
+        CALL_RULES.dispatch(this, methodInsnNode, className, methodName, currentAlgorithm, results);
+    }
+
+    @Override
+    protected boolean usesCallContext(MethodInsnNode methodInsnNode) {
+        return CALL_RULES.lookup(methodInsnNode.owner, methodInsnNode.name) != null;
     }
 
     private void handleCryptoMethod(MethodInsnNode methodInsnNode, String className, String methodName, String currentAlgorithm, List<ThreatResult> results) {
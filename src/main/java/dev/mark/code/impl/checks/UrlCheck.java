@@ -2,6 +2,7 @@ package dev.mark.code.impl.checks;
 
 import dev.mark.code.api.model.ThreatResult;
 import dev.mark.code.impl.AbstractThreatChecker;
+import dev.mark.code.impl.rules.StringRuleSet;
 import dev.mark.code.util.PatternMatcher;
 import dev.mark.code.util.RiskEvaluator;
 import org.objectweb.asm.tree.ClassNode;
@@ -11,6 +12,13 @@ import java.util.List;
 
 public class UrlCheck extends AbstractThreatChecker {
 
+    private static final StringRuleSet<UrlCheck> STRING_RULES = StringRuleSet.<UrlCheck>builder()
+            .rule("url.url", UrlCheck::analyzeUrl)
+            .rule("url.suspicious-domain", UrlCheck::analyzeSuspiciousDomain)
+            .rule("url.ip-address", UrlCheck::analyzeIpAddress)
+            .rule("url.base64", UrlCheck::analyzeBase64Data)
+            .build();
+
     public UrlCheck() {
         super(ThreatResult.ThreatType.URL);
     }
@@ -22,10 +30,7 @@ public class UrlCheck extends AbstractThreatChecker {
 
     @Override
     protected void analyzeStringConstant(String value, String className, String methodName, List<ThreatResult> results) {
-        analyzeUrl(value, className, methodName, results);
-        analyzeSuspiciousDomain(value, className, methodName, results);
-        analyzeIpAddress(value, className, methodName, results);
-        analyzeBase64Data(value, className, methodName, results);
+        STRING_RULES.apply(this, value, className, methodName, results);
     }
 
     private void analyzeUrl(String value, String className, String methodName, List<ThreatResult> results) {
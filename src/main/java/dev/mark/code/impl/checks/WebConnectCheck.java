@@ -3,14 +3,36 @@ package dev.mark.code.impl.checks;
 import dev.mark.code.api.model.ThreatResult;
 import dev.mark.code.constants.ThreatPatterns;
 import dev.mark.code.impl.AbstractThreatChecker;
+import dev.mark.code.impl.rules.CallRuleTable;
+import dev.mark.code.impl.rules.StringRuleSet;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 
 import java.util.List;
+import java.util.Set;
 
 public class WebConnectCheck extends AbstractThreatChecker {
 
+    private static final Set<String> SSL_BYPASS_METHODS = Set.of("setHostnameVerifier", "setSSLSocketFactory");
+
+    private static final CallRuleTable<WebConnectCheck> CALL_RULES = CallRuleTable.<WebConnectCheck>builder()
+            .subtypesOf("web.connection-call", ThreatPatterns.WEB_CONNECTION_CLASSES, WebConnectCheck::handleWebConnectionMethod)
+            .ownersMatching("web.third-party-client", WebConnectCheck::isThirdPartyHttpClient,
+                    (checker, methodInsnNode, className, methodName, currentUrl, results) -> checker.handleThirdPartyHttpClient(methodInsnNode, className, methodName, results))
+            .subtypesOf("web.ssl-bypass-type", ThreatPatterns.SSL_BYPASS_TYPES,
+                    (checker, methodInsnNode, className, methodName, currentUrl, results) -> checker.handleSslBypassAttempt(className, methodName, results))
+            .methods("web.ssl-bypass-method", SSL_BYPASS_METHODS,
+                    (checker, methodInsnNode, className, methodName, currentUrl, results) -> checker.handleSslBypassAttempt(className, methodName, results))
+            .build();
+
+    private static final StringRuleSet<WebConnectCheck> STRING_RULES = StringRuleSet.<WebConnectCheck>builder()
+            .rule("web.http-method", WebConnectCheck::analyzeHttpMethod)
+            .rule("web.header", WebConnectCheck::analyzeHttpHeaders)
+            .rule("web.browser-agent", WebConnectCheck::analyzeBrowserAgent)
+            .rule("web.content-type", WebConnectCheck::analyzeContentType)
+            .build();
+
     public WebConnectCheck() {
         super(ThreatResult.ThreatType.WEB_CONNECTION);
     }
@@ -22,10 +44,7 @@ public class WebConnectCheck extends AbstractThreatChecker {
 
     @Override
     protected void analyzeStringConstant(String value, String className, String methodName, List<ThreatResult> results) {
-        analyzeHttpMethod(value, className, methodName, results);
-        analyzeHttpHeaders(value, className, methodName, results);
-        analyzeBrowserAgent(value, className, methodName, results);
-        analyzeContentType(value, className, methodName, results);
+        STRING_RULES.apply(this, value, className, methodName, results);
     }
 
     private void analyzeHttpMethod(String value, String className, String methodName, List<ThreatResult> results) {
@@ -80,17 +99,12 @@ public class WebConnectCheck extends AbstractThreatChecker {
 
     @Override
     protected void analyzeMethodCall(MethodInsnNode methodInsnNode, String className, String methodName, String currentUrl, List<ThreatResult> results) {
-        if (isWebConnectionMethod(methodInsnNode)) {
-            handleWebConnectionMethod(methodInsnNode, className, methodName, currentUrl, results);
-        } else if (isThirdPartyHttpClient(methodInsnNode.owner)) {
-            handleThirdPartyHttpClient(methodInsnNode, className, methodName, results);
-        } else if (isSslBypassAttempt(methodInsnNode)) {
-            handleSslBypassAttempt(className, methodName, results);
-        }
+        CALL_RULES.dispatch(this, methodInsnNode, className, methodName, currentUrl, results);
     }
 
-    private boolean isWebConnectionMethod(MethodInsnNode methodInsnNode) {
-        return ThreatPatterns.WEB_CONNECTION_CLASSES.contains(methodInsnNode.owner);
+    @Override
+    protected boolean usesCallContext(MethodInsnNode methodInsnNode) {
+        return CALL_RULES.lookup(methodInsnNode.owner, methodInsnNode.name) != null;
     }
 
     private void handleWebConnectionMethod(MethodInsnNode methodInsnNode, String className, String methodName, String currentUrl, List<ThreatResult> results) {
@@ -123,14 +137,10 @@ public class WebConnectCheck extends AbstractThreatChecker {
         ));
     }
 
-    private boolean isThirdPartyHttpClient(String owner) {
+    private static boolean isThirdPartyHttpClient(String owner) {
         return owner.contains("apache/http") || owner.contains("okhttp") || owner.contains("retrofit");
     }
 
-    private boolean isSslBypassAttempt(MethodInsnNode methodInsnNode) {
-        return methodInsnNode.owner.contains("TrustManager") || methodInsnNode.owner.contains("HostnameVerifier") || "setHostnameVerifier".equals(methodInsnNode.name) || "setSSLSocketFactory".equals(methodInsnNode.name);
-    }
-
     private StringBuilder buildMethodDetails(MethodInsnNode methodInsnNode, String currentUrl) {
         StringBuilder details = new StringBuilder().append("Method: ").append(methodInsnNode.owner).append(".").append(methodInsnNode.name).append(methodInsnNode.desc);
 
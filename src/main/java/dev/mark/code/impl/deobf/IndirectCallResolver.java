@@ -0,0 +1,162 @@
+package dev.mark.code.impl.deobf;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class IndirectCallResolver {
+
+    private static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+    private static final String STRING_CONCAT_FACTORY = "java/lang/invoke/StringConcatFactory";
+    private static final String REFLECTIVE_DESCRIPTOR = "(...)";
+    private static final char CONCAT_ARGUMENT = '\u0001';
+    private static final char CONCAT_CONSTANT = '\u0002';
+    private static final int MAX_CACHED_METHODS = 200_000;
+    private static final Set<String> REFLECTIVE_LOOKUPS = Set.of(
+            "java/lang/Class.getMethod", "java/lang/Class.getDeclaredMethod",
+            "java/lang/invoke/MethodHandles$Lookup.findVirtual", "java/lang/invoke/MethodHandles$Lookup.findStatic",
+            "java/lang/invoke/MethodHandles$Lookup.findSpecial"
+    );
+    private static final Map<AbstractInsnNode, Resolution> NONE = Map.of();
+
+    private static final Map<MethodNode, Map<AbstractInsnNode, Resolution>> resolved = new ConcurrentHashMap<>();
+
+    public record Resolution(List<MethodInsnNode> calls, String text) {}
+
+    public static Resolution resolve(MethodNode methodNode, AbstractInsnNode instruction) {
+        Map<AbstractInsnNode, Resolution> resolutions = resolved.get(methodNode);
+        if (resolutions == null) {
+            if (resolved.size() >= MAX_CACHED_METHODS) {
+                resolved.clear();
+            }
+            resolutions = resolved.computeIfAbsent(methodNode, IndirectCallResolver::resolveMethod);
+        }
+        return resolutions.get(instruction);
+    }
+
+    public static void clear() {
+        resolved.clear();
+    }
+
+    private static Map<AbstractInsnNode, Resolution> resolveMethod(MethodNode methodNode) {
+        if (methodNode.instructions == null || methodNode.instructions.size() == 0) return NONE;
+
+        Map<AbstractInsnNode, Resolution> resolutions = null;
+        String reflectedClass = null;
+        String reflectedName = null;
+
+        for (AbstractInsnNode insn = methodNode.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            Resolution resolution = null;
+
+            if (insn instanceof InvokeDynamicInsnNode indy) {
+                resolution = isLambda(indy) ? resolveLambda(indy) : isConcat(indy) ? resolveConcat(indy) : null;
+            } else if (insn instanceof LdcInsnNode ldc && ldc.cst instanceof Type type && type.getSort() == Type.OBJECT && reflectedName == null) {
+                reflectedClass = type.getInternalName();
+                reflectedName = null;
+            } else if (insn instanceof LdcInsnNode ldc && ldc.cst instanceof String value && reflectedClass != null && reflectedName == null) {
+                reflectedName = value;
+            } else if (insn instanceof MethodInsnNode call && isForName(call)) {
+                Object name = StringDecryptor.constantValue(StringDecryptor.previousInstruction(call));
+                reflectedClass = name instanceof String className ? className.replace('.', '/') : null;
+                reflectedName = null;
+            } else if (insn instanceof MethodInsnNode call && REFLECTIVE_LOOKUPS.contains(call.owner + "." + call.name)) {
+                if (reflectedClass != null && reflectedName != null) {
+                    resolution = new Resolution(List.of(new MethodInsnNode(lookupOpcode(call), reflectedClass, reflectedName, REFLECTIVE_DESCRIPTOR)), null);
+                }
+                reflectedClass = null;
+                reflectedName = null;
+            }
+
+            if (resolution != null) {
+                if (resolutions == null) {
+                    resolutions = new IdentityHashMap<>();
+                }
+                resolutions.put(insn, resolution);
+            }
+        }
+        return resolutions != null ? resolutions : NONE;
+    }
+
+    private static boolean isLambda(InvokeDynamicInsnNode indy) {
+        return LAMBDA_METAFACTORY.equals(indy.bsm.getOwner()) && indy.bsmArgs.length > 1 && indy.bsmArgs[1] instanceof Handle;
+    }
+
+    private static boolean isConcat(InvokeDynamicInsnNode indy) {
+        return STRING_CONCAT_FACTORY.equals(indy.bsm.getOwner()) && "makeConcatWithConstants".equals(indy.bsm.getName())
+                && indy.bsmArgs.length > 0 && indy.bsmArgs[0] instanceof String;
+    }
+
+    private static boolean isForName(MethodInsnNode call) {
+        return "java/lang/Class".equals(call.owner) && "forName".equals(call.name);
+    }
+
+    private static int lookupOpcode(MethodInsnNode call) {
+        return "findStatic".equals(call.name) ? Opcodes.INVOKESTATIC : Opcodes.INVOKEVIRTUAL;
+    }
+
+    private static Resolution resolveLambda(InvokeDynamicInsnNode indy) {
+        Handle target = (Handle) indy.bsmArgs[1];
+        int opcode = switch (target.getTag()) {
+            case Opcodes.H_INVOKESTATIC -> Opcodes.INVOKESTATIC;
+            case Opcodes.H_INVOKESPECIAL, Opcodes.H_NEWINVOKESPECIAL -> Opcodes.INVOKESPECIAL;
+            case Opcodes.H_INVOKEINTERFACE -> Opcodes.INVOKEINTERFACE;
+            case Opcodes.H_INVOKEVIRTUAL -> Opcodes.INVOKEVIRTUAL;
+            default -> -1;
+        };
+        if (opcode < 0) return null;
+
+        return new Resolution(List.of(new MethodInsnNode(opcode, target.getOwner(), target.getName(), target.getDesc(), target.isInterface())), null);
+    }
+
+    private static Resolution resolveConcat(InvokeDynamicInsnNode indy) {
+        String recipe = (String) indy.bsmArgs[0];
+        Object[] arguments = constantArguments(indy);
+
+        StringBuilder text = new StringBuilder();
+        int argument = 0;
+        int constant = 1;
+        boolean known = false;
+        for (int i = 0; i < recipe.length(); i++) {
+            char c = recipe.charAt(i);
+            if (c == CONCAT_ARGUMENT) {
+                Object value = argument < arguments.length ? arguments[argument] : null;
+                argument++;
+                if (value != null) {
+                    text.append(value);
+                    known = true;
+                }
+            } else if (c == CONCAT_CONSTANT) {
+                if (constant < indy.bsmArgs.length) {
+                    text.append(indy.bsmArgs[constant]);
+                }
+                constant++;
+                known = true;
+            } else {
+                text.append(c);
+                known = true;
+            }
+        }
+        return known && !text.isEmpty() ? new Resolution(List.of(), text.toString()) : null;
+    }
+
+    private static Object[] constantArguments(InvokeDynamicInsnNode indy) {
+        Type[] types = Type.getArgumentTypes(indy.desc);
+        Object[] arguments = new Object[types.length];
+
+        AbstractInsnNode insn = indy;
+        for (int i = types.length - 1; i >= 0; i--) {
+            if (types[i].getSize() != 1) break;
+
+            insn = StringDecryptor.previousInstruction(insn);
+            Object value = StringDecryptor.constantValue(insn);
+            if (value == null) break;
+
+            arguments[i] = types[i].getSort() == Type.CHAR && value instanceof Integer code ? (char) code.intValue() : value;
+        }
+        return arguments;
+    }
+}
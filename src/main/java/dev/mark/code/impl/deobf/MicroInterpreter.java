@@ -0,0 +1,400 @@
+package dev.mark.code.impl.deobf;
+
+import dev.mark.code.api.Jar;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class MicroInterpreter implements Opcodes {
+
+    private static final int MAX_INSTRUCTIONS = 200_000;
+    private static final int MAX_ALLOCATED_ELEMENTS = 1 << 16;
+    private static final int MAX_CALL_DEPTH = 8;
+
+    private static final Map<MethodNode, Code> codeCache = new ConcurrentHashMap<>();
+
+    private int remainingInstructions = MAX_INSTRUCTIONS;
+    private int remainingElements = MAX_ALLOCATED_ELEMENTS;
+
+    private record Code(AbstractInsnNode[] instructions, Map<LabelNode, Integer> labels,
+                        String[] callSignatures, int[] argumentCounts, boolean[] returnsValue) {}
+
+    private static final class Abort extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private static final Abort INSTANCE = new Abort();
+
+        private Abort() {
+            super(null, null, false, false);
+        }
+    }
+
+    static String invokeForString(MethodNode method, Object[] args) {
+        try {
+            return new MicroInterpreter().invoke(method, args, 0) instanceof String decoded ? decoded : null;
+        } catch (Abort | ArithmeticException | IndexOutOfBoundsException | ClassCastException
+                 | NegativeArraySizeException | NullPointerException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static MethodNode findMethod(ClassNode owner, String name, String desc) {
+        for (MethodNode method : owner.methods) {
+            if (method.name.equals(name) && method.desc.equals(desc)) {
+                return (method.access & (ACC_STATIC | ACC_NATIVE | ACC_ABSTRACT)) == ACC_STATIC ? method : null;
+            }
+        }
+        return null;
+    }
+
+    static void clear() {
+        codeCache.clear();
+    }
+
+    private Object invoke(MethodNode method, Object[] args, int depth) {
+        if (depth > MAX_CALL_DEPTH || method.instructions.size() == 0) throw Abort.INSTANCE;
+
+        Code code = codeCache.computeIfAbsent(method, MicroInterpreter::compile);
+        AbstractInsnNode[] instructions = code.instructions();
+        Object[] locals = new Object[Math.max(method.maxLocals, args.length)];
+        Object[] stack = new Object[method.maxStack + 1];
+        System.arraycopy(args, 0, locals, 0, args.length);
+
+        int sp = 0;
+        int pc = 0;
+        while (true) {
+            if (--remainingInstructions < 0 || pc >= instructions.length) throw Abort.INSTANCE;
+
+            AbstractInsnNode insn = instructions[pc++];
+            int opcode = insn.getOpcode();
+            switch (opcode) {
+                case -1, NOP -> {}
+                case ACONST_NULL -> stack[sp++] = null;
+                case ICONST_M1, ICONST_0, ICONST_1, ICONST_2, ICONST_3, ICONST_4, ICONST_5 -> stack[sp++] = opcode - ICONST_0;
+                case BIPUSH, SIPUSH -> stack[sp++] = ((IntInsnNode) insn).operand;
+                case LDC -> {
+                    Object constant = ((LdcInsnNode) insn).cst;
+                    if (!(constant instanceof String) && !(constant instanceof Integer)) throw Abort.INSTANCE;
+                    stack[sp++] = constant;
+                }
+                case ILOAD, ALOAD -> stack[sp++] = locals[((VarInsnNode) insn).var];
+                case ISTORE, ASTORE -> locals[((VarInsnNode) insn).var] = stack[--sp];
+                case IINC -> {
+                    IincInsnNode iinc = (IincInsnNode) insn;
+                    locals[iinc.var] = (Integer) locals[iinc.var] + iinc.incr;
+                }
+                case IALOAD -> {
+                    int index = (Integer) stack[--sp];
+                    stack[sp - 1] = ((int[]) stack[sp - 1])[index];
+                }
+                case BALOAD -> {
+                    int index = (Integer) stack[--sp];
+                    Object array = stack[sp - 1];
+                    stack[sp - 1] = array instanceof boolean[] booleans ? (booleans[index] ? 1 : 0) : (int) ((byte[]) array)[index];
+                }
+                case CALOAD -> {
+                    int index = (Integer) stack[--sp];
+                    stack[sp - 1] = (int) ((char[]) stack[sp - 1])[index];
+                }
+                case SALOAD -> {
+                    int index = (Integer) stack[--sp];
+                    stack[sp - 1] = (int) ((short[]) stack[sp - 1])[index];
+                }
+                case IASTORE, BASTORE, CASTORE, SASTORE -> {
+                    int value = (Integer) stack[--sp];
+                    int index = (Integer) stack[--sp];
+                    storeElement(stack[--sp], index, value);
+                }
+                case POP -> sp--;
+                case POP2 -> sp -= 2;
+                case DUP -> {
+                    stack[sp] = stack[sp - 1];
+                    sp++;
+                }
+                case DUP_X1 -> {
+                    Object top = stack[sp - 1];
+                    stack[sp - 1] = stack[sp - 2];
+                    stack[sp - 2] = top;
+                    stack[sp++] = top;
+                }
+                case DUP2 -> {
+                    stack[sp] = stack[sp - 2];
+                    stack[sp + 1] = stack[sp - 1];
+                    sp += 2;
+                }
+                case SWAP -> {
+                    Object top = stack[sp - 1];
+                    stack[sp - 1] = stack[sp - 2];
+                    stack[sp - 2] = top;
+                }
+                case IADD, ISUB, IMUL, IDIV, IREM, ISHL, ISHR, IUSHR, IAND, IOR, IXOR -> {
+                    int right = (Integer) stack[--sp];
+                    int left = (Integer) stack[sp - 1];
+                    stack[sp - 1] = arithmetic(opcode, left, right);
+                }
+                case INEG -> stack[sp - 1] = -(Integer) stack[sp - 1];
+                case I2B -> stack[sp - 1] = (int) (byte) (int) (Integer) stack[sp - 1];
+                case I2C -> stack[sp - 1] = (int) (char) (int) (Integer) stack[sp - 1];
+                case I2S -> stack[sp - 1] = (int) (short) (int) (Integer) stack[sp - 1];
+                case IFEQ, IFNE, IFLT, IFGE, IFGT, IFLE -> {
+                    if (compare(opcode - IFEQ, (Integer) stack[--sp], 0)) {
+                        pc = code.labels().get(((JumpInsnNode) insn).label);
+                    }
+                }
+                case IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT, IF_ICMPLE -> {
+                    int right = (Integer) stack[--sp];
+                    int left = (Integer) stack[--sp];
+                    if (compare(opcode - IF_ICMPEQ, left, right)) {
+                        pc = code.labels().get(((JumpInsnNode) insn).label);
+                    }
+                }
+                case IF_ACMPEQ, IF_ACMPNE -> {
+                    Object right = stack[--sp];
+                    Object left = stack[--sp];
+                    if ((left == right) == (opcode == IF_ACMPEQ)) {
+                        pc = code.labels().get(((JumpInsnNode) insn).label);
+                    }
+                }
+                case IFNULL, IFNONNULL -> {
+                    if ((stack[--sp] == null) == (opcode == IFNULL)) {
+                        pc = code.labels().get(((JumpInsnNode) insn).label);
+                    }
+                }
+                case GOTO -> pc = code.labels().get(((JumpInsnNode) insn).label);
+                case TABLESWITCH -> {
+                    TableSwitchInsnNode tableSwitch = (TableSwitchInsnNode) insn;
+                    int key = (Integer) stack[--sp];
+                    LabelNode target = key >= tableSwitch.min && key <= tableSwitch.max
+                            ? tableSwitch.labels.get(key - tableSwitch.min)
+                            : tableSwitch.dflt;
+                    pc = code.labels().get(target);
+                }
+                case LOOKUPSWITCH -> {
+                    LookupSwitchInsnNode lookupSwitch = (LookupSwitchInsnNode) insn;
+                    int index = lookupSwitch.keys.indexOf(stack[--sp]);
+                    pc = code.labels().get(index >= 0 ? lookupSwitch.labels.get(index) : lookupSwitch.dflt);
+                }
+                case IRETURN, ARETURN -> {
+                    return stack[--sp];
+                }
+                case NEWARRAY -> {
+                    int length = (Integer) stack[sp - 1];
+                    allocate(length);
+                    stack[sp - 1] = switch (((IntInsnNode) insn).operand) {
+                        case T_BOOLEAN -> new boolean[length];
+                        case T_CHAR -> new char[length];
+                        case T_BYTE -> new byte[length];
+                        case T_SHORT -> new short[length];
+                        case T_INT -> new int[length];
+                        default -> throw Abort.INSTANCE;
+                    };
+                }
+                case ARRAYLENGTH -> stack[sp - 1] = java.lang.reflect.Array.getLength(stack[sp - 1]);
+                case NEW -> {
+                    String type = ((TypeInsnNode) insn).desc;
+                    if (!type.equals("java/lang/StringBuilder") && !type.equals("java/lang/String")) throw Abort.INSTANCE;
+                    stack[sp++] = new Uninitialized(type);
+                }
+                case CHECKCAST -> checkCast(stack[sp - 1], ((TypeInsnNode) insn).desc);
+                case INVOKESTATIC, INVOKEVIRTUAL, INVOKESPECIAL -> sp = invokeMethod((MethodInsnNode) insn, code, pc - 1, stack, sp, depth);
+                default -> throw Abort.INSTANCE;
+            }
+        }
+    }
+
+    private int invokeMethod(MethodInsnNode call, Code code, int index, Object[] stack, int sp, int depth) {
+        int argumentCount = code.argumentCounts()[index];
+        if (argumentCount < 0) throw Abort.INSTANCE;
+
+        Object[] args = new Object[argumentCount];
+        sp -= argumentCount;
+        System.arraycopy(stack, sp, args, 0, argumentCount);
+
+        String signature = code.callSignatures()[index];
+        if (call.getOpcode() == INVOKESPECIAL) {
+            if (!call.name.equals("<init>") || !(args[0] instanceof Uninitialized uninitialized)) throw Abort.INSTANCE;
+
+            Object constructed = construct(signature, args);
+            for (int i = 0; i < sp; i++) {
+                if (stack[i] == uninitialized) stack[i] = constructed;
+            }
+            return sp;
+        }
+
+        Object result = call.getOpcode() == INVOKESTATIC && Jar.getClassNode(call.owner) != null
+                ? invokeInJar(call, args, depth)
+                : invokeLibrary(signature, args);
+
+        if (code.returnsValue()[index]) {
+            stack[sp++] = result;
+        }
+        return sp;
+    }
+
+    private Object invokeInJar(MethodInsnNode call, Object[] args, int depth) {
+        MethodNode target = findMethod(Jar.getClassNode(call.owner), call.name, call.desc);
+        if (target == null) throw Abort.INSTANCE;
+        return invoke(target, args, depth + 1);
+    }
+
+    private Object construct(String signature, Object[] args) {
+        return switch (signature) {
+            case "java/lang/StringBuilder()V" -> new StringBuilder();
+            case "java/lang/StringBuilder(I)V" -> new StringBuilder(allocate((Integer) args[1]));
+            case "java/lang/StringBuilder(Ljava/lang/String;)V" -> allocated(new StringBuilder((String) args[1]));
+            case "java/lang/String([C)V" -> allocated(new String((char[]) args[1]));
+            case "java/lang/String([CII)V" -> allocated(new String((char[]) args[1], (Integer) args[2], (Integer) args[3]));
+            case "java/lang/String([B)V" -> allocated(new String((byte[]) args[1], StandardCharsets.UTF_8));
+            case "java/lang/String([BLjava/lang/String;)V" -> allocated(new String((byte[]) args[1], charset((String) args[2])));
+            case "java/lang/String(Ljava/lang/String;)V" -> (String) args[1];
+            default -> throw Abort.INSTANCE;
+        };
+    }
+
+    private Object invokeLibrary(String signature, Object[] args) {
+        return switch (signature) {
+            case "java/lang/String.length()I" -> ((String) args[0]).length();
+            case "java/lang/String.charAt(I)C" -> (int) ((String) args[0]).charAt((Integer) args[1]);
+            case "java/lang/String.toCharArray()[C" -> allocated(((String) args[0]).toCharArray());
+            case "java/lang/String.getBytes()[B" -> allocated(((String) args[0]).getBytes(StandardCharsets.UTF_8));
+            case "java/lang/String.getBytes(Ljava/lang/String;)[B" -> allocated(((String) args[0]).getBytes(charset((String) args[1])));
+            case "java/lang/String.substring(I)Ljava/lang/String;" -> allocated(((String) args[0]).substring((Integer) args[1]));
+            case "java/lang/String.substring(II)Ljava/lang/String;" -> allocated(((String) args[0]).substring((Integer) args[1], (Integer) args[2]));
+            case "java/lang/String.concat(Ljava/lang/String;)Ljava/lang/String;" -> allocated(((String) args[0]).concat((String) args[1]));
+            case "java/lang/String.indexOf(I)I" -> ((String) args[0]).indexOf((Integer) args[1]);
+            case "java/lang/String.intern()Ljava/lang/String;", "java/lang/String.toString()Ljava/lang/String;" -> (String) args[0];
+            case "java/lang/String.valueOf([C)Ljava/lang/String;", "java/lang/String.copyValueOf([C)Ljava/lang/String;" -> allocated(new String((char[]) args[0]));
+            case "java/lang/String.valueOf(C)Ljava/lang/String;" -> allocated(String.valueOf((char) (int) (Integer) args[0]));
+            case "java/lang/String.valueOf(I)Ljava/lang/String;" -> allocated(String.valueOf((int) (Integer) args[0]));
+            case "java/lang/StringBuilder.append(C)Ljava/lang/StringBuilder;" -> append(args[0], (char) (int) (Integer) args[1]);
+            case "java/lang/StringBuilder.append(I)Ljava/lang/StringBuilder;" -> append(args[0], String.valueOf((int) (Integer) args[1]));
+            case "java/lang/StringBuilder.append(Ljava/lang/String;)Ljava/lang/StringBuilder;" -> append(args[0], (String) args[1]);
+            case "java/lang/StringBuilder.append([C)Ljava/lang/StringBuilder;" -> append(args[0], new String((char[]) args[1]));
+            case "java/lang/StringBuilder.length()I" -> ((StringBuilder) args[0]).length();
+            case "java/lang/StringBuilder.charAt(I)C" -> (int) ((StringBuilder) args[0]).charAt((Integer) args[1]);
+            case "java/lang/StringBuilder.setCharAt(IC)V" -> {
+                ((StringBuilder) args[0]).setCharAt((Integer) args[1], (char) (int) (Integer) args[2]);
+                yield null;
+            }
+            case "java/lang/StringBuilder.reverse()Ljava/lang/StringBuilder;" -> allocated(((StringBuilder) args[0]).reverse());
+            case "java/lang/StringBuilder.toString()Ljava/lang/String;" -> allocated(((StringBuilder) args[0]).toString());
+            case "[C.clone()Ljava/lang/Object;" -> allocated(((char[]) args[0]).clone());
+            case "[B.clone()Ljava/lang/Object;" -> allocated(((byte[]) args[0]).clone());
+            case "[I.clone()Ljava/lang/Object;" -> allocated(((int[]) args[0]).clone());
+            default -> throw Abort.INSTANCE;
+        };
+    }
+
+    private StringBuilder append(Object builder, Object value) {
+        String text = String.valueOf(value);
+        allocate(text.length());
+        return ((StringBuilder) builder).append(text);
+    }
+
+    private <T> T allocated(T value) {
+        allocate(value instanceof CharSequence text ? text.length() : java.lang.reflect.Array.getLength(value));
+        return value;
+    }
+
+    private int allocate(int elements) {
+        if (elements < 0 || (remainingElements -= elements) < 0) throw Abort.INSTANCE;
+        return elements;
+    }
+
+    private static void storeElement(Object array, int index, int value) {
+        switch (array) {
+            case int[] ints -> ints[index] = value;
+            case byte[] bytes -> bytes[index] = (byte) value;
+            case boolean[] booleans -> booleans[index] = (value & 1) != 0;
+            case char[] chars -> chars[index] = (char) value;
+            case short[] shorts -> shorts[index] = (short) value;
+            default -> throw Abort.INSTANCE;
+        }
+    }
+
+    private static int arithmetic(int opcode, int left, int right) {
+        return switch (opcode) {
+            case IADD -> left + right;
+            case ISUB -> left - right;
+            case IMUL -> left * right;
+            case IDIV -> left / right;
+            case IREM -> left % right;
+            case ISHL -> left << right;
+            case ISHR -> left >> right;
+            case IUSHR -> left >>> right;
+            case IAND -> left & right;
+            case IOR -> left | right;
+            default -> left ^ right;
+        };
+    }
+
+    private static boolean compare(int condition, int left, int right) {
+        return switch (condition) {
+            case 0 -> left == right;
+            case 1 -> left != right;
+            case 2 -> left < right;
+            case 3 -> left >= right;
+            case 4 -> left > right;
+            default -> left <= right;
+        };
+    }
+
+    private static void checkCast(Object value, String type) {
+        boolean valid = value == null || switch (type) {
+            case "java/lang/String" -> value instanceof String;
+            case "java/lang/StringBuilder" -> value instanceof StringBuilder;
+            case "java/lang/Object", "java/lang/CharSequence" -> true;
+            case "[C" -> value instanceof char[];
+            case "[B" -> value instanceof byte[];
+            case "[I" -> value instanceof int[];
+            default -> false;
+        };
+        if (!valid) throw Abort.INSTANCE;
+    }
+
+    private static Charset charset(String name) {
+        return switch (name.toUpperCase()) {
+            case "UTF-8", "UTF8" -> StandardCharsets.UTF_8;
+            case "ISO-8859-1", "ISO8859_1", "LATIN1" -> StandardCharsets.ISO_8859_1;
+            case "US-ASCII", "ASCII" -> StandardCharsets.US_ASCII;
+            case "UTF-16" -> StandardCharsets.UTF_16;
+            case "UTF-16BE" -> StandardCharsets.UTF_16BE;
+            case "UTF-16LE" -> StandardCharsets.UTF_16LE;
+            default -> throw Abort.INSTANCE;
+        };
+    }
+
+    private static Code compile(MethodNode method) {
+        AbstractInsnNode[] instructions = method.instructions.toArray();
+        Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+        String[] callSignatures = new String[instructions.length];
+        int[] argumentCounts = new int[instructions.length];
+        boolean[] returnsValue = new boolean[instructions.length];
+
+        for (int i = 0; i < instructions.length; i++) {
+            if (instructions[i] instanceof LabelNode label) {
+                labels.put(label, i);
+            } else if (instructions[i] instanceof MethodInsnNode call) {
+                callSignatures[i] = call.getOpcode() == INVOKESPECIAL ? call.owner + call.desc : call.owner + "." + call.name + call.desc;
+                argumentCounts[i] = argumentCount(call);
+                returnsValue[i] = Type.getReturnType(call.desc).getSort() != Type.VOID;
+            }
+        }
+        return new Code(instructions, labels, callSignatures, argumentCounts, returnsValue);
+    }
+
+    private static int argumentCount(MethodInsnNode call) {
+        Type[] argumentTypes = Type.getArgumentTypes(call.desc);
+        for (Type type : argumentTypes) {
+            if (type.getSize() != 1) return -1;
+        }
+        return argumentTypes.length + (call.getOpcode() == INVOKESTATIC ? 0 : 1);
+    }
+
+    private record Uninitialized(String type) {}
+}
@@ -0,0 +1,201 @@
+package dev.mark.code.impl.deobf;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+public final class PayloadDecoder {
+
+    private static final int MIN_ENCODED_LENGTH = 16;
+    private static final int MAX_DEPTH = 4;
+    private static final int MAX_LAYER_BYTES = 1 << 20;
+    private static final int MAX_VALUE_WORK_BYTES = 4 << 20;
+    private static final long MAX_JAR_WORK_BYTES = 64L << 20;
+    private static final int MAX_CACHED_VALUES = 50_000;
+    private static final double MIN_PRINTABLE_RATIO = 0.9;
+
+    private static final Decoded NOTHING = new Decoded(List.of(), List.of());
+    private static final Map<String, Decoded> cache = new ConcurrentHashMap<>();
+    private static final AtomicLong remainingJarWork = new AtomicLong(MAX_JAR_WORK_BYTES);
+
+    public enum PayloadKind { CLASS, ARCHIVE }
+
+    public record Payload(PayloadKind kind, byte[] bytes, String encoding) {}
+
+    public record DecodedText(String text, String encoding) {}
+
+    public record Decoded(List<DecodedText> texts, List<Payload> payloads) {
+
+        public boolean isEmpty() {
+            return texts.isEmpty() && payloads.isEmpty();
+        }
+    }
+
+    public static Decoded decode(String value) {
+        if (!isCandidate(value)) return NOTHING;
+
+        Decoded cached = cache.get(value);
+        if (cached != null) return cached;
+        if (remainingJarWork.get() <= 0) return NOTHING;
+
+        Work work = new Work();
+        List<DecodedText> texts = new ArrayList<>();
+        List<Payload> payloads = new ArrayList<>();
+        decodeText(value, "", 0, work, texts, payloads);
+        remainingJarWork.addAndGet(-work.used());
+
+        Decoded decoded = texts.isEmpty() && payloads.isEmpty() ? NOTHING : new Decoded(List.copyOf(texts), List.copyOf(payloads));
+        if (cache.size() >= MAX_CACHED_VALUES) {
+            cache.clear();
+        }
+        cache.put(value, decoded);
+        return decoded;
+    }
+
+    public static void clear() {
+        cache.clear();
+        remainingJarWork.set(MAX_JAR_WORK_BYTES);
+    }
+
+    private static void decodeText(String value, String encoding, int depth, Work work, List<DecodedText> texts, List<Payload> payloads) {
+        if (depth >= MAX_DEPTH || !isCandidate(value)) return;
+
+        String trimmed = value.strip();
+        if (isHex(trimmed)) {
+            byte[] bytes = HexFormat.of().parseHex(trimmed);
+            if (work.consume(bytes.length)) {
+                decodeBytes(bytes, layer(encoding, "hex"), depth + 1, work, texts, payloads);
+            }
+            return;
+        }
+
+        byte[] bytes = decodeBase64(trimmed);
+        if (bytes != null && work.consume(bytes.length)) {
+            decodeBytes(bytes, layer(encoding, "base64"), depth + 1, work, texts, payloads);
+        }
+    }
+
+    private static void decodeBytes(byte[] bytes, String encoding, int depth, Work work, List<DecodedText> texts, List<Payload> payloads) {
+        if (bytes.length >= 4 && (bytes[0] & 0xFF) == 0xCA && (bytes[1] & 0xFF) == 0xFE && (bytes[2] & 0xFF) == 0xBA && (bytes[3] & 0xFF) == 0xBE) {
+            payloads.add(new Payload(PayloadKind.CLASS, bytes, encoding));
+            return;
+        }
+        if (bytes.length >= 4 && bytes[0] == 'P' && bytes[1] == 'K' && bytes[2] == 3 && bytes[3] == 4) {
+            payloads.add(new Payload(PayloadKind.ARCHIVE, bytes, encoding));
+            return;
+        }
+        if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0x1F && (bytes[1] & 0xFF) == 0x8B) {
+            if (depth >= MAX_DEPTH) return;
+
+            byte[] inflated = gunzip(bytes, work);
+            if (inflated != null) {
+                decodeBytes(inflated, layer(encoding, "gzip"), depth + 1, work, texts, payloads);
+            }
+            return;
+        }
+
+        String text = printableText(bytes);
+        if (text != null) {
+            texts.add(new DecodedText(text, encoding));
+            decodeText(text, encoding, depth, work, texts, payloads);
+        }
+    }
+
+    private static byte[] gunzip(byte[] bytes, Work work) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            int limit = Math.min(MAX_LAYER_BYTES, work.remaining());
+            byte[] inflated = in.readNBytes(limit + 1);
+            if (inflated.length > limit || !work.consume(inflated.length)) return null;
+            return inflated;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] decodeBase64(String value) {
+        if (value.length() % 4 == 1) return null;
+        try {
+            if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                return Base64.getMimeDecoder().decode(value);
+            }
+            boolean urlSafe = value.indexOf('-') >= 0 || value.indexOf('_') >= 0;
+            return (urlSafe ? Base64.getUrlDecoder() : Base64.getDecoder()).decode(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String printableText(byte[] bytes) {
+        try {
+            CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes));
+
+            int printable = 0;
+            for (int i = 0; i < chars.length(); i++) {
+                char c = chars.charAt(i);
+                if (c >= 0x20 || c == '\n' || c == '\r' || c == '\t') printable++;
+            }
+            return chars.length() > 0 && printable >= chars.length() * MIN_PRINTABLE_RATIO ? chars.toString() : null;
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCandidate(String value) {
+        if (value.length() < MIN_ENCODED_LENGTH || value.length() > MAX_LAYER_BYTES * 2) return false;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean encoded = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '+' || c == '/' || c == '=' || c == '-' || c == '_' || c == '\n' || c == '\r';
+            if (!encoded) return false;
+        }
+        return true;
+    }
+
+    private static boolean isHex(String value) {
+        if (value.length() % 2 != 0) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static String layer(String encoding, String layer) {
+        return encoding.isEmpty() ? layer : encoding + " > " + layer;
+    }
+
+    private static final class Work {
+        private int remaining = MAX_VALUE_WORK_BYTES;
+        private int used;
+
+        boolean consume(int bytes) {
+            if (bytes > MAX_LAYER_BYTES || bytes > remaining) {
+                remaining = 0;
+                return false;
+            }
+            remaining -= bytes;
+            used += bytes;
+            return true;
+        }
+
+        int remaining() {
+            return remaining;
+        }
+
+        int used() {
+            return used;
+        }
+    }
+}
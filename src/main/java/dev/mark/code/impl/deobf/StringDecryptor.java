@@ -0,0 +1,101 @@
+package dev.mark.code.impl.deobf;
+
+import dev.mark.code.api.Jar;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class StringDecryptor {
+
+    private static final String STRING_RETURN = ")Ljava/lang/String;";
+    private static final int MAX_CACHED_RESULTS = 100_000;
+    private static final Object FAILED = new Object();
+
+    private static final Map<CallKey, Object> results = new ConcurrentHashMap<>();
+
+    private record CallKey(String owner, String name, String desc, List<Object> args) {}
+
+    public static String decrypt(MethodInsnNode call) {
+        if (call.getOpcode() != Opcodes.INVOKESTATIC || !call.desc.endsWith(STRING_RETURN)) return null;
+
+        ClassNode owner = Jar.getClassNode(call.owner);
+        if (owner == null) return null;
+
+        Object[] args = constantArguments(call);
+        if (args == null) return null;
+
+        CallKey key = new CallKey(call.owner, call.name, call.desc, Arrays.asList(args));
+        Object cached = results.get(key);
+        if (cached == null) {
+            MethodNode target = MicroInterpreter.findMethod(owner, call.name, call.desc);
+            String decoded = target != null ? MicroInterpreter.invokeForString(target, args) : null;
+            cached = decoded != null ? decoded : FAILED;
+
+            if (results.size() >= MAX_CACHED_RESULTS) {
+                results.clear();
+            }
+            results.put(key, cached);
+        }
+        return cached instanceof String decoded ? decoded : null;
+    }
+
+    public static void clear() {
+        results.clear();
+        MicroInterpreter.clear();
+    }
+
+    private static Object[] constantArguments(MethodInsnNode call) {
+        Type[] types = Type.getArgumentTypes(call.desc);
+        if (types.length == 0) return null;
+
+        Object[] args = new Object[types.length];
+        boolean hasString = false;
+        AbstractInsnNode insn = call;
+
+        for (int i = types.length - 1; i >= 0; i--) {
+            insn = previousInstruction(insn);
+            Object value = constantValue(insn);
+            if (value == null || !matches(types[i], value)) return null;
+
+            hasString |= value instanceof String;
+            args[i] = value;
+        }
+        return hasString ? args : null;
+    }
+
+    private static boolean matches(Type type, Object value) {
+        return switch (type.getSort()) {
+            case Type.INT, Type.CHAR, Type.SHORT, Type.BYTE, Type.BOOLEAN -> value instanceof Integer;
+            case Type.OBJECT -> value instanceof String && type.getInternalName().equals("java/lang/String");
+            default -> false;
+        };
+    }
+
+    static Object constantValue(AbstractInsnNode insn) {
+        if (insn == null) return null;
+
+        int opcode = insn.getOpcode();
+        if (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.ICONST_5) {
+            return opcode - Opcodes.ICONST_0;
+        }
+        return switch (insn) {
+            case IntInsnNode intInsn when opcode == Opcodes.BIPUSH || opcode == Opcodes.SIPUSH -> intInsn.operand;
+            case LdcInsnNode ldcInsn when ldcInsn.cst instanceof String || ldcInsn.cst instanceof Integer -> ldcInsn.cst;
+            default -> null;
+        };
+    }
+
+    static AbstractInsnNode previousInstruction(AbstractInsnNode insn) {
+        AbstractInsnNode previous = insn.getPrevious();
+        while (previous != null && previous.getOpcode() < 0) {
+            if (previous instanceof LabelNode) return null;
+            previous = previous.getPrevious();
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,250 @@
+package dev.mark.code.impl.flow;
+
+import dev.mark.code.api.Jar;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class StringFlow {
+
+    private static final int MAX_CACHED_METHODS = 200_000;
+    private static final int MAX_ANALYZED_INSTRUCTIONS = 20_000;
+    private static final int MAX_SUMMARY_INSTRUCTIONS = 400;
+    private static final int MAX_SUMMARY_DEPTH = 2;
+    private static final int MAX_CALL_SITES = 64;
+    private static final Map<AbstractInsnNode, StringValue[]> NONE = Map.of();
+    private static final Summary NO_SUMMARY = new Summary(Set.of(), 0L);
+
+    private static final Map<MethodNode, Map<AbstractInsnNode, StringValue[]>> arguments = new ConcurrentHashMap<>();
+    private static final Map<MethodNode, Summary> summaries = new ConcurrentHashMap<>();
+    private static volatile CallSites callSites;
+
+    record Summary(Set<String> strings, long parameters) {
+        StringValue apply(MethodInsnNode call, List<? extends StringValue> values) {
+            Set<String> result = new LinkedHashSet<>(strings);
+            long passed = 0L;
+            int[] locals = argumentLocals(call.desc, call.getOpcode() == Opcodes.INVOKESTATIC);
+            for (int i = 0; i < values.size() && i < locals.length; i++) {
+                if (isParameter(parameters, locals[i])) {
+                    values.get(i).collectStrings(result);
+                    passed |= values.get(i).parameters();
+                }
+            }
+            return StringValue.constants(result, passed);
+        }
+    }
+
+    private record CallSite(MethodNode caller, MethodInsnNode call) {}
+
+    private record CallSites(Map<MethodNode, String> owners, Map<String, List<CallSite>> byTarget) {}
+
+    public static List<String> reachingStrings(MethodNode methodNode, AbstractInsnNode site) {
+        StringValue[] values = argumentsOf(methodNode).get(site);
+        if (values == null) return List.of();
+
+        Set<String> strings = new LinkedHashSet<>();
+        long parameters = 0L;
+        for (StringValue value : values) {
+            value.collectStrings(strings);
+            parameters |= value.parameters();
+        }
+        if (parameters != 0L) {
+            collectIncoming(methodNode, parameters, strings);
+        }
+        return List.copyOf(strings);
+    }
+
+    public static void clear() {
+        arguments.clear();
+        summaries.clear();
+        callSites = null;
+    }
+
+    static Summary summary(MethodInsnNode call, int depth) {
+        if (depth >= MAX_SUMMARY_DEPTH) return null;
+
+        int sort = Type.getReturnType(call.desc).getSort();
+        if (sort != Type.OBJECT && sort != Type.ARRAY) return null;
+
+        ClassNode owner = Jar.getClassNode(call.owner);
+        MethodNode target = owner != null ? findHelper(owner, call) : null;
+        if (target == null) return null;
+
+        Summary summary = summaries.get(target);
+        if (summary == null) {
+            summary = summarize(owner.name, target, depth + 1);
+            if (summaries.size() >= MAX_CACHED_METHODS) {
+                summaries.clear();
+            }
+            summaries.putIfAbsent(target, summary);
+        }
+        return summary != NO_SUMMARY ? summary : null;
+    }
+
+    private static MethodNode findHelper(ClassNode owner, MethodInsnNode call) {
+        for (MethodNode method : owner.methods) {
+            if (!method.name.equals(call.name) || !method.desc.equals(call.desc)) continue;
+
+            boolean concrete = (method.access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) == 0;
+            boolean bound = call.getOpcode() == Opcodes.INVOKESTATIC || call.getOpcode() == Opcodes.INVOKESPECIAL
+                    || (method.access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL)) != 0
+                    || (owner.access & Opcodes.ACC_FINAL) != 0;
+            int size = method.instructions.size();
+            return concrete && bound && size > 0 && size <= MAX_SUMMARY_INSTRUCTIONS ? method : null;
+        }
+        return null;
+    }
+
+    private static Summary summarize(String owner, MethodNode method, int depth) {
+        StringInterpreter interpreter = new StringInterpreter(depth);
+        try {
+            new Analyzer<>(interpreter).analyze(owner, method);
+        } catch (AnalyzerException | RuntimeException e) {
+            return NO_SUMMARY;
+        }
+
+        StringValue returned = interpreter.returned();
+        if (returned == null || returned.isEmpty()) return NO_SUMMARY;
+
+        Set<String> strings = new LinkedHashSet<>();
+        returned.collectStrings(strings);
+        return new Summary(Collections.unmodifiableSet(strings), returned.parameters());
+    }
+
+    private static Map<AbstractInsnNode, StringValue[]> argumentsOf(MethodNode methodNode) {
+        Map<AbstractInsnNode, StringValue[]> result = arguments.get(methodNode);
+        if (result == null) {
+            if (arguments.size() >= MAX_CACHED_METHODS) {
+                arguments.clear();
+            }
+            result = analyze(methodNode);
+            arguments.putIfAbsent(methodNode, result);
+        }
+        return result;
+    }
+
+    private static Map<AbstractInsnNode, StringValue[]> analyze(MethodNode methodNode) {
+        InsnList instructions = methodNode.instructions;
+        if (instructions == null || instructions.size() == 0 || instructions.size() > MAX_ANALYZED_INSTRUCTIONS) return NONE;
+
+        Frame<StringValue>[] frames;
+        try {
+            frames = new Analyzer<>(new StringInterpreter(0)).analyze("java/lang/Object", methodNode);
+        } catch (AnalyzerException | RuntimeException e) {
+            return NONE;
+        }
+
+        Map<AbstractInsnNode, StringValue[]> result = null;
+        for (int i = 0; i < frames.length; i++) {
+            Frame<StringValue> frame = frames[i];
+            AbstractInsnNode insn = instructions.get(i);
+            if (frame == null) continue;
+
+            int count = switch (insn) {
+                case MethodInsnNode call -> Type.getArgumentTypes(call.desc).length + (call.getOpcode() == Opcodes.INVOKESTATIC ? 0 : 1);
+                case InvokeDynamicInsnNode indy -> Type.getArgumentTypes(indy.desc).length;
+                default -> 0;
+            };
+            if (count == 0) continue;
+
+            StringValue[] values = new StringValue[count];
+            boolean empty = true;
+            for (int j = 0; j < count; j++) {
+                values[j] = frame.getStack(frame.getStackSize() - count + j);
+                empty &= values[j].isEmpty();
+            }
+            if (empty) continue;
+
+            if (result == null) {
+                result = new IdentityHashMap<>();
+            }
+            result.put(insn, values);
+        }
+        return result != null ? result : NONE;
+    }
+
+    private static void collectIncoming(MethodNode methodNode, long parameters, Set<String> strings) {
+        CallSites sites = callSites();
+        String owner = sites.owners().get(methodNode);
+        if (owner == null) return;
+
+        boolean isStatic = (methodNode.access & Opcodes.ACC_STATIC) != 0;
+        int[] locals = argumentLocals(methodNode.desc, isStatic);
+        List<CallSite> callers = sites.byTarget().getOrDefault(owner + "." + methodNode.name + methodNode.desc, List.of());
+
+        for (int i = 0; i < callers.size() && i < MAX_CALL_SITES; i++) {
+            CallSite site = callers.get(i);
+            StringValue[] values = argumentsOf(site.caller()).get(site.call());
+            if (values == null) continue;
+
+            for (int j = 0; j < values.length && j < locals.length; j++) {
+                if (isParameter(parameters, locals[j])) {
+                    values[j].collectStrings(strings);
+                }
+            }
+        }
+    }
+
+    private static CallSites callSites() {
+        CallSites sites = callSites;
+        if (sites == null) {
+            synchronized (StringFlow.class) {
+                sites = callSites;
+                if (sites == null) {
+                    sites = indexCallSites();
+                    callSites = sites;
+                }
+            }
+        }
+        return sites;
+    }
+
+    private static CallSites indexCallSites() {
+        List<ClassNode> classes;
+        synchronized (Jar.classes) {
+            classes = new ArrayList<>(Jar.classes);
+        }
+
+        Map<MethodNode, String> owners = new IdentityHashMap<>();
+        Map<String, List<CallSite>> byTarget = new HashMap<>();
+        for (ClassNode classNode : classes) {
+            if (classNode.methods == null) continue;
+
+            for (MethodNode methodNode : classNode.methods) {
+                owners.put(methodNode, classNode.name);
+                if (methodNode.instructions == null) continue;
+
+                for (AbstractInsnNode insn = methodNode.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                    if (insn instanceof MethodInsnNode call && Jar.getClassNode(call.owner) != null) {
+                        byTarget.computeIfAbsent(call.owner + "." + call.name + call.desc, key -> new ArrayList<>())
+                                .add(new CallSite(methodNode, call));
+                    }
+                }
+            }
+        }
+        return new CallSites(owners, byTarget);
+    }
+
+    private static int[] argumentLocals(String desc, boolean isStatic) {
+        Type[] types = Type.getArgumentTypes(desc);
+        int offset = isStatic ? 0 : 1;
+        int[] locals = new int[types.length + offset];
+
+        int local = offset;
+        for (int i = 0; i < types.length; i++) {
+            locals[i + offset] = local;
+            local += types[i].getSize();
+        }
+        return locals;
+    }
+
+    private static boolean isParameter(long parameters, int local) {
+        return local < Long.SIZE && (parameters & (1L << local)) != 0L;
+    }
+}
@@ -0,0 +1,210 @@
+package dev.mark.code.impl.flow;
+
+import dev.mark.code.impl.deobf.StringDecryptor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.Interpreter;
+
+import java.util.*;
+
+final class StringInterpreter extends Interpreter<StringValue> {
+
+    private static final String STRING_CONCAT_FACTORY = "java/lang/invoke/StringConcatFactory";
+    private static final char CONCAT_ARGUMENT = '\u0001';
+    private static final char CONCAT_CONSTANT = '\u0002';
+    private static final Set<String> BUILDERS = Set.of("java/lang/StringBuilder", "java/lang/StringBuffer");
+    private static final Set<String> COLLECTION_FACTORIES = Set.of(
+            "java/util/List.of", "java/util/Set.of", "java/util/Arrays.asList", "java/util/Collections.singletonList"
+    );
+
+    private final int depth;
+    private final Map<AbstractInsnNode, StringValue.Container> containers = new IdentityHashMap<>();
+    private StringValue returned;
+
+    StringInterpreter(int depth) {
+        super(Opcodes.ASM9);
+        this.depth = depth;
+    }
+
+    StringValue returned() {
+        return returned;
+    }
+
+    @Override
+    public StringValue newValue(Type type) {
+        if (type == Type.VOID_TYPE) return null;
+        return StringValue.unknown(type == null ? 1 : type.getSize());
+    }
+
+    @Override
+    public StringValue newParameterValue(boolean isInstanceMethod, int local, Type type) {
+        if (isInstanceMethod && local == 0) return StringValue.SINGLE;
+        return StringValue.parameter(local, type.getSize());
+    }
+
+    @Override
+    public StringValue newOperation(AbstractInsnNode insn) {
+        return switch (insn.getOpcode()) {
+            case Opcodes.LCONST_0, Opcodes.LCONST_1, Opcodes.DCONST_0, Opcodes.DCONST_1 -> StringValue.DOUBLE;
+            case Opcodes.LDC -> {
+                Object cst = ((LdcInsnNode) insn).cst;
+                if (cst instanceof String value) yield StringValue.constant(value);
+                yield StringValue.unknown(cst instanceof Long || cst instanceof Double ? 2 : 1);
+            }
+            case Opcodes.GETSTATIC -> StringValue.unknown(Type.getType(((FieldInsnNode) insn).desc).getSize());
+            case Opcodes.NEW -> StringValue.container(containerAt(insn));
+            default -> StringValue.SINGLE;
+        };
+    }
+
+    @Override
+    public StringValue copyOperation(AbstractInsnNode insn, StringValue value) {
+        return value;
+    }
+
+    @Override
+    public StringValue unaryOperation(AbstractInsnNode insn, StringValue value) {
+        return switch (insn.getOpcode()) {
+            case Opcodes.CHECKCAST -> value;
+            case Opcodes.ANEWARRAY -> StringValue.container(containerAt(insn));
+            case Opcodes.LNEG, Opcodes.DNEG, Opcodes.I2L, Opcodes.I2D, Opcodes.L2D, Opcodes.F2L, Opcodes.F2D, Opcodes.D2L -> StringValue.DOUBLE;
+            case Opcodes.GETFIELD -> StringValue.unknown(Type.getType(((FieldInsnNode) insn).desc).getSize());
+            default -> StringValue.SINGLE;
+        };
+    }
+
+    @Override
+    public StringValue binaryOperation(AbstractInsnNode insn, StringValue value1, StringValue value2) {
+        return switch (insn.getOpcode()) {
+            case Opcodes.AALOAD -> StringValue.derived(List.of(value1));
+            case Opcodes.LALOAD, Opcodes.DALOAD, Opcodes.LADD, Opcodes.DADD, Opcodes.LSUB, Opcodes.DSUB,
+                 Opcodes.LMUL, Opcodes.DMUL, Opcodes.LDIV, Opcodes.DDIV, Opcodes.LREM, Opcodes.DREM,
+                 Opcodes.LSHL, Opcodes.LSHR, Opcodes.LUSHR, Opcodes.LAND, Opcodes.LOR, Opcodes.LXOR -> StringValue.DOUBLE;
+            default -> StringValue.SINGLE;
+        };
+    }
+
+    @Override
+    public StringValue ternaryOperation(AbstractInsnNode insn, StringValue value1, StringValue value2, StringValue value3) {
+        if (insn.getOpcode() == Opcodes.AASTORE) {
+            addTo(value1, List.of(value3));
+        }
+        return StringValue.SINGLE;
+    }
+
+    @Override
+    public StringValue naryOperation(AbstractInsnNode insn, List<? extends StringValue> values) {
+        return switch (insn) {
+            case MethodInsnNode call -> invoke(call, values);
+            case InvokeDynamicInsnNode indy when isConcat(indy) -> concat(indy, values);
+            case InvokeDynamicInsnNode indy -> returnValue(Type.getReturnType(indy.desc), values);
+            default -> StringValue.SINGLE;
+        };
+    }
+
+    @Override
+    public void returnOperation(AbstractInsnNode insn, StringValue value, StringValue expected) {
+        if (insn.getOpcode() == Opcodes.ARETURN) {
+            returned = returned == null ? value : returned.merge(value);
+        }
+    }
+
+    @Override
+    public StringValue merge(StringValue value1, StringValue value2) {
+        return value1.merge(value2);
+    }
+
+    private StringValue.Container containerAt(AbstractInsnNode insn) {
+        return containers.computeIfAbsent(insn, key -> new StringValue.Container());
+    }
+
+    private StringValue invoke(MethodInsnNode call, List<? extends StringValue> values) {
+        Type returnType = Type.getReturnType(call.desc);
+
+        if (call.getOpcode() == Opcodes.INVOKESPECIAL && "<init>".equals(call.name)) {
+            addTo(values.getFirst(), values.subList(1, values.size()));
+            return null;
+        }
+        if (BUILDERS.contains(call.owner) && "append".equals(call.name) && values.size() == 2) {
+            addTo(values.getFirst(), values.subList(1, 2));
+            return values.getFirst();
+        }
+        if (COLLECTION_FACTORIES.contains(call.owner + "." + call.name)) {
+            return StringValue.derived(values);
+        }
+
+        String decrypted = StringDecryptor.decrypt(call);
+        if (decrypted != null) return StringValue.constant(decrypted);
+
+        StringFlow.Summary summary = StringFlow.summary(call, depth);
+        if (summary != null) return summary.apply(call, values);
+
+        return returnValue(returnType, values);
+    }
+
+    private static StringValue returnValue(Type returnType, List<? extends StringValue> values) {
+        int sort = returnType.getSort();
+        if (sort == Type.VOID) return null;
+        if (sort != Type.OBJECT && sort != Type.ARRAY) return StringValue.unknown(returnType.getSize());
+        return StringValue.derived(values);
+    }
+
+    private static void addTo(StringValue target, List<? extends StringValue> values) {
+        for (StringValue.Container container : target.containers()) {
+            for (StringValue value : values) {
+                container.add(value);
+            }
+        }
+    }
+
+    private static boolean isConcat(InvokeDynamicInsnNode indy) {
+        Handle bsm = indy.bsm;
+        return STRING_CONCAT_FACTORY.equals(bsm.getOwner()) && "makeConcatWithConstants".equals(bsm.getName())
+                && indy.bsmArgs.length > 0 && indy.bsmArgs[0] instanceof String;
+    }
+
+    private static StringValue concat(InvokeDynamicInsnNode indy, List<? extends StringValue> values) {
+        String recipe = (String) indy.bsmArgs[0];
+        StringBuilder text = new StringBuilder();
+        Set<String> fragments = new LinkedHashSet<>();
+        boolean exact = true;
+        int argument = 0;
+        int constant = 1;
+
+        for (int i = 0; i < recipe.length(); i++) {
+            char c = recipe.charAt(i);
+            if (c == CONCAT_ARGUMENT) {
+                StringValue value = argument < values.size() ? values.get(argument) : StringValue.SINGLE;
+                argument++;
+                String single = value.singleString();
+                if (single != null) {
+                    text.append(single);
+                } else {
+                    exact = false;
+                    value.collectStrings(fragments);
+                }
+            } else if (c == CONCAT_CONSTANT) {
+                if (constant < indy.bsmArgs.length) {
+                    text.append(indy.bsmArgs[constant]);
+                }
+                constant++;
+            } else {
+                text.append(c);
+            }
+        }
+
+        long parameters = 0L;
+        for (StringValue value : values) {
+            parameters |= value.parameters();
+        }
+        if (exact) return StringValue.constant(text.toString());
+
+        String literal = text.toString().strip();
+        if (!literal.isEmpty()) {
+            fragments.add(literal);
+        }
+        return StringValue.constants(fragments, parameters);
+    }
+}
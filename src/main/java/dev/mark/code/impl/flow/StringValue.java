@@ -0,0 +1,142 @@
+package dev.mark.code.impl.flow;
+
+import org.objectweb.asm.tree.analysis.Value;
+
+import java.util.*;
+
+final class StringValue implements Value {
+
+    static final int MAX_STRINGS = 16;
+    static final StringValue SINGLE = new StringValue(1, Set.of(), 0L, Set.of());
+    static final StringValue DOUBLE = new StringValue(2, Set.of(), 0L, Set.of());
+
+    static final class Container {
+        final Set<String> strings = new LinkedHashSet<>();
+        long parameters;
+
+        void add(StringValue value) {
+            value.collectStrings(strings);
+            parameters |= value.parameters();
+        }
+    }
+
+    private final int size;
+    private final Set<String> strings;
+    private final long parameters;
+    private final Set<Container> containers;
+
+    private StringValue(int size, Set<String> strings, long parameters, Set<Container> containers) {
+        this.size = size;
+        this.strings = strings;
+        this.parameters = parameters;
+        this.containers = containers;
+    }
+
+    static StringValue unknown(int size) {
+        return size == 2 ? DOUBLE : SINGLE;
+    }
+
+    static StringValue constant(String value) {
+        return new StringValue(1, Set.of(value), 0L, Set.of());
+    }
+
+    static StringValue constants(Set<String> values, long parameters) {
+        if (values.isEmpty() && parameters == 0L) return SINGLE;
+        return new StringValue(1, ordered(values), parameters, Set.of());
+    }
+
+    static StringValue parameter(int local, int size) {
+        if (local >= Long.SIZE) return unknown(size);
+        return new StringValue(size, Set.of(), 1L << local, Set.of());
+    }
+
+    static StringValue container(Container container) {
+        return new StringValue(1, Set.of(), 0L, Set.of(container));
+    }
+
+    static StringValue derived(List<? extends StringValue> values) {
+        Set<String> strings = new LinkedHashSet<>();
+        long parameters = 0L;
+        for (StringValue value : values) {
+            value.collectStrings(strings);
+            parameters |= value.parameters();
+        }
+        return constants(strings, parameters);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return strings.isEmpty() && parameters == 0L && containers.isEmpty();
+    }
+
+    Set<Container> containers() {
+        return containers;
+    }
+
+    String singleString() {
+        return containers.isEmpty() && parameters == 0L && strings.size() == 1 ? strings.iterator().next() : null;
+    }
+
+    long parameters() {
+        long result = parameters;
+        for (Container container : containers) {
+            result |= container.parameters;
+        }
+        return result;
+    }
+
+    void collectStrings(Set<String> target) {
+        addAll(target, strings);
+        for (Container container : containers) {
+            addAll(target, container.strings);
+        }
+    }
+
+    StringValue merge(StringValue other) {
+        if (equals(other)) return this;
+        if (size != other.size) return SINGLE;
+        if (other.isEmpty()) return this;
+        if (isEmpty()) return other;
+
+        Set<String> mergedStrings = new LinkedHashSet<>(strings);
+        addAll(mergedStrings, other.strings);
+
+        Set<Container> mergedContainers = containers;
+        if (!containers.containsAll(other.containers)) {
+            mergedContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+            mergedContainers.addAll(containers);
+            mergedContainers.addAll(other.containers);
+        }
+        return new StringValue(size, Collections.unmodifiableSet(mergedStrings), parameters | other.parameters, mergedContainers);
+    }
+
+    private static Set<String> ordered(Set<String> values) {
+        Set<String> result = new LinkedHashSet<>();
+        addAll(result, values);
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static void addAll(Set<String> target, Set<String> source) {
+        for (String value : source) {
+            if (target.size() >= MAX_STRINGS) return;
+            target.add(value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StringValue other)) return false;
+        return size == other.size && parameters == other.parameters
+                && strings.equals(other.strings) && containers.equals(other.containers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, strings, parameters, containers.size());
+    }
+}
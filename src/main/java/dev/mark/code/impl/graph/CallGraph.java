@@ -0,0 +1,279 @@
+package dev.mark.code.impl.graph;
+
+import dev.mark.code.api.Jar;
+import dev.mark.code.api.model.ThreatResult;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+public final class CallGraph {
+
+    private static final String MAIN_METHOD_NAME = "main";
+    private static final String MAIN_METHOD_DESCRIPTOR = "([Ljava/lang/String;)V";
+    private static final int UNREACHED = -1;
+    private static final int ENTRY = -2;
+
+    private final Map<String, Integer> methodIds;
+    private final String[] owners;
+    private final MethodNode[] methods;
+    private final int[] callerOffsets;
+    private final int[] callers;
+    private final int[] parents;
+
+    private CallGraph(Map<String, Integer> methodIds, String[] owners, MethodNode[] methods, int[] callerOffsets, int[] callers, int[] parents) {
+        this.methodIds = methodIds;
+        this.owners = owners;
+        this.methods = methods;
+        this.callerOffsets = callerOffsets;
+        this.callers = callers;
+        this.parents = parents;
+    }
+
+    public static CallGraph build(List<ClassNode> classList) {
+        ClassNode[] classes = classList.toArray(new ClassNode[0]);
+
+        Map<String, Integer> methodIds = new HashMap<>();
+        List<String> owners = new ArrayList<>();
+        List<MethodNode> methods = new ArrayList<>();
+        for (ClassNode classNode : classes) {
+            for (MethodNode methodNode : classNode.methods) {
+                methodIds.putIfAbsent(methodKey(classNode.name, methodNode.name, methodNode.desc), methods.size());
+                owners.add(classNode.name);
+                methods.add(methodNode);
+            }
+        }
+
+        int methodCount = methods.size();
+        long[] edges = collectEdges(classes, methodIds);
+
+        int[] callerOffsets = new int[methodCount + 1];
+        int[] callers = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            callerOffsets[(int) (edges[i] >>> 32) + 1]++;
+            callers[i] = (int) edges[i];
+        }
+        for (int i = 0; i < methodCount; i++) {
+            callerOffsets[i + 1] += callerOffsets[i];
+        }
+
+        int[] entries = findEntryMethods(methodIds);
+        int[] parents = shortestParents(methodCount, callerOffsets, callers, entries);
+
+        return new CallGraph(methodIds, owners.toArray(new String[0]), methods.toArray(new MethodNode[0]), callerOffsets, callers, parents);
+    }
+
+    public int methodCount() {
+        return methods.length;
+    }
+
+    public int edgeCount() {
+        return callers.length;
+    }
+
+    public List<String> callersOf(String owner, String name, String desc) {
+        Integer id = methodIds.get(methodKey(owner, name, desc));
+        if (id == null) return List.of();
+
+        List<String> result = new ArrayList<>(callerOffsets[id + 1] - callerOffsets[id]);
+        for (int i = callerOffsets[id]; i < callerOffsets[id + 1]; i++) {
+            result.add(displayName(callers[i]));
+        }
+        return result;
+    }
+
+    public List<String> shortestChain(String owner, String name, String desc) {
+        int id = locate(owner, name, desc);
+        if (id < 0 || parents[id] == UNREACHED) return List.of();
+
+        List<String> chain = new ArrayList<>();
+        for (int current = id; current != ENTRY; current = parents[current]) {
+            chain.add(displayName(current));
+        }
+        Collections.reverse(chain);
+        return chain;
+    }
+
+    public List<ThreatResult> attachCallerChains(List<ThreatResult> results) {
+        List<ThreatResult> attached = new ArrayList<>(results.size());
+        for (ThreatResult result : results) {
+            List<String> chain = shortestChain(result.getClassName(), result.getMethodName(), result.getMethodDesc());
+            attached.add(chain.isEmpty() ? result : result.withCallerChain(chain));
+        }
+        return attached;
+    }
+
+    private int locate(String owner, String name, String desc) {
+        if (desc != null) {
+            Integer id = methodIds.get(methodKey(owner, name, desc));
+            return id != null ? id : -1;
+        }
+
+        ClassNode classNode = Jar.getClassNode(owner);
+        if (classNode == null) return -1;
+
+        int best = -1;
+        int bestDepth = Integer.MAX_VALUE;
+        for (MethodNode methodNode : classNode.methods) {
+            Integer id = methodNode.name.equals(name) ? methodIds.get(methodKey(owner, name, methodNode.desc)) : null;
+            if (id == null) continue;
+
+            int depth = depthOf(id);
+            if (best < 0 || depth < bestDepth) {
+                best = id;
+                bestDepth = depth;
+            }
+        }
+        return best;
+    }
+
+    private int depthOf(int id) {
+        if (parents[id] == UNREACHED) return Integer.MAX_VALUE;
+
+        int depth = 0;
+        for (int current = id; current != ENTRY; current = parents[current]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private String displayName(int id) {
+        return owners[id] + "." + methods[id].name;
+    }
+
+    private static long[] collectEdges(ClassNode[] classes, Map<String, Integer> methodIds) {
+        int[] firstMethodIds = new int[classes.length];
+        for (int i = 1; i < classes.length; i++) {
+            firstMethodIds[i] = firstMethodIds[i - 1] + classes[i - 1].methods.size();
+        }
+
+        long[] edges = IntStream.range(0, classes.length).parallel()
+                .collect(EdgeBuffer::new, (buffer, index) -> collectClassEdges(classes[index], firstMethodIds[index], methodIds, buffer), EdgeBuffer::addAll)
+                .toSortedUniqueArray();
+        return edges;
+    }
+
+    private static void collectClassEdges(ClassNode classNode, int firstMethodId, Map<String, Integer> methodIds, EdgeBuffer buffer) {
+        for (int m = 0; m < classNode.methods.size(); m++) {
+            MethodNode methodNode = classNode.methods.get(m);
+            if (methodNode.instructions == null) continue;
+
+            int caller = firstMethodId + m;
+            for (AbstractInsnNode instruction = methodNode.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+                switch (instruction) {
+                    case MethodInsnNode methodInsnNode -> addEdge(caller, resolve(methodInsnNode.owner, methodInsnNode.name, methodInsnNode.desc, methodIds), buffer);
+                    case InvokeDynamicInsnNode indyNode -> {
+                        for (Object argument : indyNode.bsmArgs) {
+                            if (argument instanceof Handle handle) {
+                                addEdge(caller, resolve(handle.getOwner(), handle.getName(), handle.getDesc(), methodIds), buffer);
+                            }
+                        }
+                    }
+                    default -> {}
+                }
+            }
+        }
+    }
+
+    private static void addEdge(int caller, int callee, EdgeBuffer buffer) {
+        if (callee >= 0) {
+            buffer.add(((long) callee << 32) | caller);
+        }
+    }
+
+    private static int resolve(String owner, String name, String desc, Map<String, Integer> methodIds) {
+        for (ClassNode classNode : ClassHierarchy.superclasses(owner)) {
+            Integer id = methodIds.get(methodKey(classNode.name, name, desc));
+            if (id != null) return id;
+        }
+        return -1;
+    }
+
+    private static int[] findEntryMethods(Map<String, Integer> methodIds) {
+        return Jar.getMainClasses().stream()
+                .map(mainClass -> methodIds.get(methodKey(mainClass.trim().replace('.', '/'), MAIN_METHOD_NAME, MAIN_METHOD_DESCRIPTOR)))
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .toArray();
+    }
+
+    private static int[] shortestParents(int methodCount, int[] callerOffsets, int[] callers, int[] entries) {
+        int[] calleeOffsets = new int[methodCount + 1];
+        for (int caller : callers) {
+            calleeOffsets[caller + 1]++;
+        }
+        for (int i = 0; i < methodCount; i++) {
+            calleeOffsets[i + 1] += calleeOffsets[i];
+        }
+
+        int[] callees = new int[callers.length];
+        int[] fill = Arrays.copyOf(calleeOffsets, methodCount);
+        for (int callee = 0; callee < methodCount; callee++) {
+            for (int i = callerOffsets[callee]; i < callerOffsets[callee + 1]; i++) {
+                callees[fill[callers[i]]++] = callee;
+            }
+        }
+
+        int[] parents = new int[methodCount];
+        Arrays.fill(parents, UNREACHED);
+
+        int[] queue = new int[methodCount];
+        int head = 0;
+        int tail = 0;
+        for (int entry : entries) {
+            parents[entry] = ENTRY;
+            queue[tail++] = entry;
+        }
+
+        while (head < tail) {
+            int method = queue[head++];
+            for (int i = calleeOffsets[method]; i < calleeOffsets[method + 1]; i++) {
+                int callee = callees[i];
+                if (parents[callee] == UNREACHED) {
+                    parents[callee] = method;
+                    queue[tail++] = callee;
+                }
+            }
+        }
+        return parents;
+    }
+
+    private static String methodKey(String owner, String name, String desc) {
+        return owner + '.' + name + desc;
+    }
+
+    private static final class EdgeBuffer {
+        private long[] data = new long[64];
+        private int size;
+
+        void add(long edge) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = edge;
+        }
+
+        void addAll(EdgeBuffer other) {
+            if (size + other.size > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+
+        long[] toSortedUniqueArray() {
+            long[] edges = Arrays.copyOf(data, size);
+            Arrays.parallelSort(edges);
+
+            int unique = 0;
+            for (int i = 0; i < edges.length; i++) {
+                if (i == 0 || edges[i] != edges[i - 1]) {
+                    edges[unique++] = edges[i];
+                }
+            }
+            return Arrays.copyOf(edges, unique);
+        }
+    }
+}
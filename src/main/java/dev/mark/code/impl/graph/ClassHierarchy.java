@@ -0,0 +1,127 @@
+package dev.mark.code.impl.graph;
+
+import dev.mark.code.api.Jar;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class ClassHierarchy {
+
+    private static final int MAX_DEPTH = 64;
+    private static final String[] NO_SUPERTYPES = new String[0];
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextId = new AtomicInteger();
+    private static final Map<String, BitSet> closures = new ConcurrentHashMap<>();
+    private static final Map<String, String[]> platformSupertypes = new ConcurrentHashMap<>();
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    public static void build(List<ClassNode> classes) {
+        reset();
+        for (ClassNode classNode : classes) {
+            closure(classNode.name, 0);
+        }
+    }
+
+    public static void reset() {
+        closures.clear();
+        ids.clear();
+        nextId.set(0);
+        generation.incrementAndGet();
+    }
+
+    public static int generation() {
+        return generation.get();
+    }
+
+    public static boolean isSubtypeOf(String owner, String type) {
+        BitSet supertypes = closure(owner, 0);
+        Integer typeId = ids.get(type);
+        return typeId != null && supertypes.get(typeId);
+    }
+
+    public static boolean isSubtypeOfAny(String owner, Collection<String> types) {
+        BitSet supertypes = closure(owner, 0);
+        for (String type : types) {
+            Integer typeId = ids.get(type);
+            if (typeId != null && supertypes.get(typeId)) return true;
+        }
+        return false;
+    }
+
+    public static List<ClassNode> superclasses(String name) {
+        List<ClassNode> chain = new ArrayList<>();
+        String current = name;
+        while (current != null && chain.size() <= MAX_DEPTH) {
+            ClassNode classNode = Jar.getClassNode(current);
+            if (classNode == null || chain.contains(classNode)) break;
+
+            chain.add(classNode);
+            current = classNode.superName;
+        }
+        return chain;
+    }
+
+    private static BitSet closure(String name, int depth) {
+        BitSet cached = closures.get(name);
+        if (cached != null) return cached;
+
+        BitSet closure = new BitSet();
+        closure.set(id(name));
+        if (depth < MAX_DEPTH) {
+            for (String supertype : directSupertypes(name)) {
+                closure.or(closure(supertype, depth + 1));
+            }
+        }
+
+        BitSet previous = closures.putIfAbsent(name, closure);
+        return previous != null ? previous : closure;
+    }
+
+    private static int id(String name) {
+        return ids.computeIfAbsent(name, key -> nextId.getAndIncrement());
+    }
+
+    private static String[] directSupertypes(String name) {
+        ClassNode classNode = Jar.getClassNode(name);
+        if (classNode == null) {
+            return platformSupertypes.computeIfAbsent(name, ClassHierarchy::readPlatformClass);
+        }
+
+        List<String> supertypes = new ArrayList<>();
+        if (classNode.superName != null) {
+            supertypes.add(classNode.superName);
+        }
+        if (classNode.interfaces != null) {
+            supertypes.addAll(classNode.interfaces);
+        }
+        return supertypes.toArray(NO_SUPERTYPES);
+    }
+
+    private static String[] readPlatformClass(String name) {
+        if (name.startsWith("[")) return NO_SUPERTYPES;
+
+        try (InputStream inputStream = ClassLoader.getPlatformClassLoader().getResourceAsStream(name + ".class")) {
+            if (inputStream == null) return NO_SUPERTYPES;
+
+            ClassReader classReader = new ClassReader(inputStream);
+            List<String> supertypes = new ArrayList<>();
+            if (classReader.getSuperName() != null) {
+                supertypes.add(classReader.getSuperName());
+            }
+            supertypes.addAll(List.of(classReader.getInterfaces()));
+            return supertypes.toArray(NO_SUPERTYPES);
+        } catch (IOException | RuntimeException e) {
+            return NO_SUPERTYPES;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package dev.mark.code.impl.graph;
+
+import dev.mark.code.api.Jar;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public final class Reachability {
+
+    private static final String SERVICES_PREFIX = "META-INF/services/";
+    private static final String MAIN_METHOD_DESCRIPTOR = "([Ljava/lang/String;)V";
+    private static final String STATIC_INITIALIZER = "<clinit>";
+
+    private final Set<MethodNode> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<String> initializedClasses = new HashSet<>();
+    private final Set<String> expandedVirtualCalls = new HashSet<>();
+    private final Map<String, List<String>> subtypeClosures = new HashMap<>();
+    private final Deque<MethodNode> worklist = new ArrayDeque<>();
+    private Map<String, List<String>> directSubtypes;
+
+    private Reachability() {}
+
+    public static Set<MethodNode> compute() {
+        Reachability reachability = new Reachability();
+        reachability.addEntryPoints();
+        reachability.drain();
+        return reachability.reachable;
+    }
+
+    private void addEntryPoints() {
+        for (String mainClass : Jar.getMainClasses()) {
+            ClassNode classNode = Jar.getClassNode(mainClass.trim().replace('.', '/'));
+            if (classNode != null) {
+                markDeclared(classNode, "main", MAIN_METHOD_DESCRIPTOR);
+            }
+        }
+
+        synchronized (Jar.classes) {
+            for (ClassNode classNode : Jar.classes) {
+                markDeclared(classNode, STATIC_INITIALIZER, "()V");
+            }
+        }
+
+        for (String provider : findServiceProviders()) {
+            ClassNode classNode = Jar.getClassNode(provider.replace('.', '/'));
+            if (classNode == null) continue;
+
+            for (MethodNode methodNode : classNode.methods) {
+                if ((methodNode.access & Opcodes.ACC_STATIC) == 0) {
+                    mark(classNode, methodNode);
+                }
+            }
+        }
+    }
+
+    private Set<String> findServiceProviders() {
+        Set<String> providers = new LinkedHashSet<>();
+        for (String name : Jar.files.names()) {
+            if (!name.startsWith(SERVICES_PREFIX) || name.length() == SERVICES_PREFIX.length()) continue;
+
+            for (String line : StandardCharsets.UTF_8.decode(Jar.files.get(name)).toString().split("\\R")) {
+                int comment = line.indexOf('#');
+                String provider = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (!provider.isEmpty()) {
+                    providers.add(provider);
+                }
+            }
+        }
+        return providers;
+    }
+
+    private void drain() {
+        MethodNode methodNode;
+        while ((methodNode = worklist.poll()) != null) {
+            if (methodNode.instructions == null) continue;
+
+            for (AbstractInsnNode instruction = methodNode.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+                switch (instruction) {
+                    case MethodInsnNode methodInsnNode -> followCall(methodInsnNode);
+                    case InvokeDynamicInsnNode indyNode -> followHandles(indyNode);
+                    case FieldInsnNode fieldInsnNode -> initialize(fieldInsnNode.owner);
+                    case TypeInsnNode typeInsnNode when typeInsnNode.getOpcode() == Opcodes.NEW -> initialize(typeInsnNode.desc);
+                    default -> {}
+                }
+            }
+        }
+    }
+
+    private void followCall(MethodInsnNode methodInsnNode) {
+        markResolved(methodInsnNode.owner, methodInsnNode.name, methodInsnNode.desc);
+
+        boolean virtual = methodInsnNode.getOpcode() == Opcodes.INVOKEVIRTUAL || methodInsnNode.getOpcode() == Opcodes.INVOKEINTERFACE;
+        if (virtual && expandedVirtualCalls.add(methodInsnNode.owner + '.' + methodInsnNode.name + methodInsnNode.desc)) {
+            for (String subtype : allSubtypes(methodInsnNode.owner)) {
+                ClassNode classNode = Jar.getClassNode(subtype);
+                if (classNode != null) {
+                    markDeclared(classNode, methodInsnNode.name, methodInsnNode.desc);
+                }
+            }
+        }
+    }
+
+    private void followHandles(InvokeDynamicInsnNode indyNode) {
+        for (Object argument : indyNode.bsmArgs) {
+            if (argument instanceof Handle handle) {
+                markResolved(handle.getOwner(), handle.getName(), handle.getDesc());
+            }
+        }
+    }
+
+    private void markResolved(String owner, String name, String desc) {
+        for (ClassNode classNode : ClassHierarchy.superclasses(owner)) {
+            if (markDeclared(classNode, name, desc)) return;
+        }
+    }
+
+    private boolean markDeclared(ClassNode classNode, String name, String desc) {
+        for (MethodNode methodNode : classNode.methods) {
+            if (methodNode.name.equals(name) && methodNode.desc.equals(desc)) {
+                mark(classNode, methodNode);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void mark(ClassNode classNode, MethodNode methodNode) {
+        if (reachable.add(methodNode)) {
+            worklist.add(methodNode);
+            initialize(classNode.name);
+        }
+    }
+
+    private void initialize(String className) {
+        String current = className;
+        while (current != null && initializedClasses.add(current)) {
+            ClassNode classNode = Jar.getClassNode(current);
+            if (classNode == null) return;
+
+            markDeclared(classNode, STATIC_INITIALIZER, "()V");
+            current = classNode.superName;
+        }
+    }
+
+    private List<String> allSubtypes(String className) {
+        if (directSubtypes == null) {
+            directSubtypes = indexSubtypes();
+        }
+
+        List<String> cached = subtypeClosures.get(className);
+        if (cached != null) return cached;
+
+        List<String> subtypes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(directSubtypes.getOrDefault(className, List.of()));
+        while (!pending.isEmpty()) {
+            String subtype = pending.poll();
+            if (seen.add(subtype)) {
+                subtypes.add(subtype);
+                pending.addAll(directSubtypes.getOrDefault(subtype, List.of()));
+            }
+        }
+
+        subtypeClosures.put(className, subtypes);
+        return subtypes;
+    }
+
+    private static Map<String, List<String>> indexSubtypes() {
+        Map<String, List<String>> subtypes = new HashMap<>();
+        synchronized (Jar.classes) {
+            for (ClassNode classNode : Jar.classes) {
+                if (classNode.superName != null) {
+                    subtypes.computeIfAbsent(classNode.superName, key -> new ArrayList<>()).add(classNode.name);
+                }
+                for (String anInterface : classNode.interfaces) {
+                    subtypes.computeIfAbsent(anInterface, key -> new ArrayList<>()).add(classNode.name);
+                }
+            }
+        }
+        return subtypes;
+    }
+}
@@ -0,0 +1,201 @@
+package dev.mark.code.impl.index;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+final class IndexSegment {
+
+    static final byte[] MAGIC = "JCREFS01".getBytes(StandardCharsets.US_ASCII);
+    static final int FOOTER_SIZE = 7 * Integer.BYTES + MAGIC.length;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int jarCount;
+    private final int locationCount;
+    private final int termCount;
+    private final int jarOffsets;
+    private final int locationOffsets;
+    private final int termOffsets;
+
+    private IndexSegment(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+
+        int footer = buffer.capacity() - FOOTER_SIZE;
+        byte[] header = new byte[MAGIC.length];
+        byte[] trailer = new byte[MAGIC.length];
+        if (footer < MAGIC.length) {
+            throw new IOException("Truncated index segment: " + path);
+        }
+        buffer.get(0, header);
+        buffer.get(footer + 7 * Integer.BYTES, trailer);
+        if (!Arrays.equals(header, MAGIC) || !Arrays.equals(trailer, MAGIC)) {
+            throw new IOException("Not a JarChecker index segment: " + path);
+        }
+
+        this.jarCount = buffer.getInt(footer);
+        this.locationCount = buffer.getInt(footer + 4);
+        this.termCount = buffer.getInt(footer + 8);
+        this.jarOffsets = buffer.getInt(footer + 12);
+        this.locationOffsets = buffer.getInt(footer + 16);
+        this.termOffsets = buffer.getInt(footer + 20);
+    }
+
+    static IndexSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Index segment too large: " + path);
+            }
+            return new IndexSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int size() {
+        return buffer.capacity();
+    }
+
+    int jarCount() {
+        return jarCount;
+    }
+
+    int locationCount() {
+        return locationCount;
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    String jar(int id) {
+        int start = offset(jarOffsets, id);
+        return string(start, offset(jarOffsets, id + 1) - start);
+    }
+
+    int locationJar(int id) {
+        return readVarInt(offset(locationOffsets, id));
+    }
+
+    String locationName(int id) {
+        int position = offset(locationOffsets, id);
+        int end = offset(locationOffsets, id + 1);
+        while ((buffer.get(position++) & 0x80) != 0) {
+            // skip the jar id
+        }
+        return string(position, end - position);
+    }
+
+    byte[] term(int index) {
+        int position = offset(termOffsets, index);
+        int length = readVarInt(position);
+        byte[] term = new byte[length];
+        buffer.get(position + varIntSize(length), term);
+        return term;
+    }
+
+    int find(byte[] term) {
+        int index = lowerBound(term);
+        return index < termCount && compareTerm(index, term, false) == 0 ? index : -1;
+    }
+
+    int lowerBound(byte[] term) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTerm(mid, term, false) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    boolean startsWith(int index, byte[] prefix) {
+        return compareTerm(index, prefix, true) == 0;
+    }
+
+    int[] postings(int index) {
+        int position = offset(termOffsets, index);
+        int end = offset(termOffsets, index + 1);
+        int length = readVarInt(position);
+        position += varIntSize(length) + length;
+
+        int[] postings = new int[8];
+        int count = 0;
+        int previous = 0;
+        while (position < end) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            previous += value;
+            if (count == postings.length) {
+                postings = Arrays.copyOf(postings, count * 2);
+            }
+            postings[count++] = previous;
+        }
+        return Arrays.copyOf(postings, count);
+    }
+
+    private int compareTerm(int index, byte[] other, boolean prefixOnly) {
+        int position = offset(termOffsets, index);
+        int length = readVarInt(position);
+        position += varIntSize(length);
+
+        int common = Math.min(length, other.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(position + i), other[i]);
+            if (cmp != 0) return cmp;
+        }
+        if (prefixOnly) {
+            return length >= other.length ? 0 : -1;
+        }
+        return Integer.compare(length, other.length);
+    }
+
+    private int offset(int table, int index) {
+        return buffer.getInt(table + index * Integer.BYTES);
+    }
+
+    private String string(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt(int position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,455 @@
+package dev.mark.code.impl.index;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+public final class ReferenceIndex {
+
+    public static final String PROPERTY = "jarchecker.index";
+
+    private static final Path DEFAULT_LOCATION = Path.of(System.getProperty("user.home"), ".jarchecker", "index");
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jcr";
+    private static final String LOCK_FILE = "index.lock";
+    private static final int FAN_IN = 8;
+    private static final long TIER_BASE_BYTES = 1L << 20;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private static final Map<Path, IndexSegment> openSegments = new HashMap<>();
+    private static volatile Path directory;
+    private static volatile boolean loaded;
+
+    public enum TermKind {
+        OWNER("o:"), METHOD("m:"), STRING("s:");
+
+        private final String prefix;
+
+        TermKind(String prefix) {
+            this.prefix = prefix;
+        }
+
+        byte[] term(String value) {
+            return (prefix + value).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public record Reference(String jar, String location) {}
+
+    public static boolean isEnabled() {
+        return directory() != null;
+    }
+
+    public static synchronized void configure(Path location) throws IOException {
+        Files.createDirectories(location);
+        directory = location;
+        loaded = true;
+    }
+
+    private static Path directory() {
+        if (!loaded) {
+            loadDefault();
+        }
+        return directory;
+    }
+
+    private static synchronized void loadDefault() {
+        if (loaded) return;
+
+        String configured = System.getProperty(PROPERTY);
+        Path location = configured != null ? Path.of(configured) : DEFAULT_LOCATION;
+        if (configured != null || Files.isDirectory(location)) {
+            try {
+                Files.createDirectories(location);
+                directory = location;
+            } catch (IOException e) {
+                System.err.println("Cannot open reference index " + location + ": " + e.getMessage());
+            }
+        }
+        loaded = true;
+    }
+
+    public static synchronized int record(File jar, List<ClassNode> classes) throws IOException {
+        Path index = directory();
+        if (index == null) return 0;
+
+        Map<String, Postings> terms = new HashMap<>();
+        List<String> locations = new ArrayList<>();
+
+        for (ClassNode classNode : classes) {
+            for (MethodNode methodNode : classNode.methods) {
+                int location = locations.size();
+                locations.add(classNode.name + "." + methodNode.name);
+
+                for (AbstractInsnNode insn = methodNode.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                    collectTerms(insn, location, terms);
+                }
+            }
+        }
+
+        byte[][] sortedTerms = new byte[terms.size()][];
+        Postings[] sortedPostings = new Postings[terms.size()];
+        int i = 0;
+        for (String term : terms.keySet()) {
+            sortedTerms[i++] = term.getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(sortedTerms, Arrays::compareUnsigned);
+        for (i = 0; i < sortedTerms.length; i++) {
+            sortedPostings[i] = terms.get(new String(sortedTerms[i], StandardCharsets.UTF_8));
+        }
+
+        Path temporary = writeTemporary(index, writer -> {
+            writer.writeJar(jar.getAbsolutePath());
+            for (String location : locations) {
+                writer.writeLocation(0, location);
+            }
+            for (int t = 0; t < sortedTerms.length; t++) {
+                writer.writeTerm(sortedTerms[t], sortedPostings[t].ids, sortedPostings[t].size);
+            }
+        });
+
+        try {
+            locked(index, () -> {
+                publish(index, temporary);
+
+                List<IndexSegment> tier;
+                while ((tier = fullTier(segments(index))) != null) {
+                    merge(index, tier);
+                }
+            });
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return sortedTerms.length;
+    }
+
+    private static void collectTerms(AbstractInsnNode insn, int location, Map<String, Postings> terms) {
+        if (insn instanceof MethodInsnNode methodInsn) {
+            add(terms, TermKind.OWNER, methodInsn.owner, location);
+            add(terms, TermKind.METHOD, methodInsn.owner + "." + methodInsn.name, location);
+        } else if (insn instanceof FieldInsnNode fieldInsn) {
+            add(terms, TermKind.OWNER, fieldInsn.owner, location);
+        } else if (insn instanceof TypeInsnNode typeInsn) {
+            add(terms, TermKind.OWNER, typeInsn.desc, location);
+        } else if (insn instanceof LdcInsnNode ldcInsn) {
+            collectConstant(ldcInsn.cst, location, terms);
+        } else if (insn instanceof InvokeDynamicInsnNode indyInsn) {
+            for (Object arg : indyInsn.bsmArgs) {
+                collectConstant(arg, location, terms);
+            }
+        }
+    }
+
+    private static void collectConstant(Object constant, int location, Map<String, Postings> terms) {
+        if (constant instanceof String string) {
+            add(terms, TermKind.STRING, string, location);
+        } else if (constant instanceof Type type && type.getSort() == Type.OBJECT) {
+            add(terms, TermKind.OWNER, type.getInternalName(), location);
+        } else if (constant instanceof Handle handle) {
+            add(terms, TermKind.OWNER, handle.getOwner(), location);
+            add(terms, TermKind.METHOD, handle.getOwner() + "." + handle.getName(), location);
+        }
+    }
+
+    private static void add(Map<String, Postings> terms, TermKind kind, String value, int location) {
+        terms.computeIfAbsent(kind.prefix + value, key -> new Postings()).add(location);
+    }
+
+    public static synchronized List<Reference> query(TermKind kind, String value, boolean prefix) throws IOException {
+        Path index = directory();
+        if (index == null) {
+            throw new IllegalStateException("No reference index configured");
+        }
+
+        byte[] term = kind.term(value);
+        List<IndexSegment> segments = new ArrayList<>();
+        locked(index, () -> segments.addAll(segments(index)));
+        Map<String, IndexSegment> latest = latestSegments(segments);
+
+        List<Reference> references = new ArrayList<>();
+        for (IndexSegment segment : segments) {
+            boolean[] live = liveJars(segment, latest);
+            if (prefix) {
+                for (int t = segment.lowerBound(term); t < segment.termCount() && segment.startsWith(t, term); t++) {
+                    addReferences(segment, t, live, references);
+                }
+            } else {
+                int t = segment.find(term);
+                if (t >= 0) {
+                    addReferences(segment, t, live, references);
+                }
+            }
+        }
+        return references;
+    }
+
+    private static void addReferences(IndexSegment segment, int term, boolean[] live, List<Reference> references) {
+        for (int location : segment.postings(term)) {
+            int jar = segment.locationJar(location);
+            if (live[jar]) {
+                references.add(new Reference(segment.jar(jar), segment.locationName(location)));
+            }
+        }
+    }
+
+    private static Map<String, IndexSegment> latestSegments(List<IndexSegment> segments) {
+        Map<String, IndexSegment> latest = new HashMap<>();
+        for (IndexSegment segment : segments) {
+            for (int j = 0; j < segment.jarCount(); j++) {
+                latest.put(segment.jar(j), segment);
+            }
+        }
+        return latest;
+    }
+
+    private static boolean[] liveJars(IndexSegment segment, Map<String, IndexSegment> latest) {
+        boolean[] live = new boolean[segment.jarCount()];
+        for (int j = 0; j < live.length; j++) {
+            live[j] = latest.get(segment.jar(j)) == segment;
+        }
+        return live;
+    }
+
+    public static synchronized int compact() throws IOException {
+        Path index = directory();
+        if (index == null) {
+            throw new IllegalStateException("No reference index configured");
+        }
+
+        List<IndexSegment> remaining = new ArrayList<>();
+        locked(index, () -> {
+            List<IndexSegment> batch;
+            while ((batch = smallestMergeable(segments(index))) != null) {
+                merge(index, batch);
+            }
+            remaining.addAll(segments(index));
+        });
+        return remaining.size();
+    }
+
+    private static List<IndexSegment> fullTier(List<IndexSegment> segments) {
+        Map<Integer, List<IndexSegment>> tiers = new TreeMap<>();
+        for (IndexSegment segment : segments) {
+            if (segment.size() < MAX_SEGMENT_BYTES / FAN_IN) {
+                tiers.computeIfAbsent(tier(segment.size()), key -> new ArrayList<>()).add(segment);
+            }
+        }
+
+        for (List<IndexSegment> tier : tiers.values()) {
+            if (tier.size() >= FAN_IN) {
+                return smallest(tier);
+            }
+        }
+        return null;
+    }
+
+    private static List<IndexSegment> smallestMergeable(List<IndexSegment> segments) {
+        List<IndexSegment> mergeable = new ArrayList<>();
+        for (IndexSegment segment : segments) {
+            if (segment.size() < MAX_SEGMENT_BYTES / FAN_IN) {
+                mergeable.add(segment);
+            }
+        }
+        return mergeable.size() >= 2 ? smallest(mergeable) : null;
+    }
+
+    private static List<IndexSegment> smallest(List<IndexSegment> segments) {
+        List<IndexSegment> bySize = new ArrayList<>(segments);
+        bySize.sort(Comparator.comparingInt(IndexSegment::size));
+        return bySize.subList(0, Math.min(FAN_IN, bySize.size()));
+    }
+
+    private static int tier(long size) {
+        int tier = 0;
+        for (long limit = TIER_BASE_BYTES; size >= limit; limit *= FAN_IN) {
+            tier++;
+        }
+        return tier;
+    }
+
+    private static void merge(Path index, List<IndexSegment> selected) throws IOException {
+        Map<String, IndexSegment> latest = latestSegments(segments(index));
+        Path temporary = writeTemporary(index, writer -> merge(selected, latest, writer));
+        try {
+            publish(index, temporary);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        for (IndexSegment segment : selected) {
+            openSegments.remove(segment.path());
+            Files.deleteIfExists(segment.path());
+        }
+    }
+
+    private static void merge(List<IndexSegment> segments, Map<String, IndexSegment> latest, SegmentWriter writer) throws IOException {
+        int[][] jarIds = new int[segments.size()][];
+        int[][] locationIds = new int[segments.size()][];
+
+        int jars = 0;
+        for (int s = 0; s < segments.size(); s++) {
+            IndexSegment segment = segments.get(s);
+            boolean[] live = liveJars(segment, latest);
+            jarIds[s] = new int[segment.jarCount()];
+            for (int j = 0; j < segment.jarCount(); j++) {
+                jarIds[s][j] = live[j] ? jars++ : -1;
+                if (live[j]) {
+                    writer.writeJar(segment.jar(j));
+                }
+            }
+        }
+
+        int locations = 0;
+        for (int s = 0; s < segments.size(); s++) {
+            IndexSegment segment = segments.get(s);
+            locationIds[s] = new int[segment.locationCount()];
+            for (int l = 0; l < segment.locationCount(); l++) {
+                int jar = jarIds[s][segment.locationJar(l)];
+                locationIds[s][l] = jar >= 0 ? locations++ : -1;
+                if (jar >= 0) {
+                    writer.writeLocation(jar, segment.locationName(l));
+                }
+            }
+        }
+
+        PriorityQueue<TermCursor> queue = new PriorityQueue<>();
+        for (int s = 0; s < segments.size(); s++) {
+            TermCursor cursor = new TermCursor(segments.get(s), s);
+            if (cursor.advance()) queue.add(cursor);
+        }
+
+        Postings merged = new Postings();
+        while (!queue.isEmpty()) {
+            byte[] term = queue.peek().term;
+            merged.size = 0;
+
+            while (!queue.isEmpty() && Arrays.equals(queue.peek().term, term)) {
+                TermCursor cursor = queue.poll();
+                for (int location : cursor.segment.postings(cursor.index)) {
+                    int id = locationIds[cursor.order][location];
+                    if (id >= 0) {
+                        merged.add(id);
+                    }
+                }
+                if (cursor.advance()) queue.add(cursor);
+            }
+            if (merged.size > 0) {
+                writer.writeTerm(term, merged.ids, merged.size);
+            }
+        }
+    }
+
+    private static Path writeTemporary(Path index, SegmentWriterTask task) throws IOException {
+        Path temporary = Files.createTempFile(index, SEGMENT_PREFIX, ".tmp");
+        try (SegmentWriter writer = new SegmentWriter(temporary)) {
+            task.write(writer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        return temporary;
+    }
+
+    private static void publish(Path index, Path temporary) throws IOException {
+        Files.move(temporary, index.resolve(nextSegmentName(index)), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void locked(Path index, IndexTask task) throws IOException {
+        try (FileChannel channel = FileChannel.open(index.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.lock();
+            task.run();
+        }
+    }
+
+    private static String nextSegmentName(Path index) throws IOException {
+        long next = 0;
+        for (Path path : segmentPaths(index)) {
+            String name = path.getFileName().toString();
+            next = Math.max(next, Long.parseLong(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10) + 1);
+        }
+        return String.format("%s%010d%s", SEGMENT_PREFIX, next, SEGMENT_SUFFIX);
+    }
+
+    private static List<IndexSegment> segments(Path index) throws IOException {
+        List<Path> paths = segmentPaths(index);
+        openSegments.keySet().retainAll(paths);
+
+        List<IndexSegment> segments = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            IndexSegment segment = openSegments.get(path);
+            if (segment == null) {
+                segment = IndexSegment.open(path);
+                openSegments.put(path, segment);
+            }
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    private static List<Path> segmentPaths(Path index) throws IOException {
+        try (Stream<Path> paths = Files.list(index)) {
+            return paths.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentWriterTask {
+        void write(SegmentWriter writer) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws IOException;
+    }
+
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) return;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private static final class TermCursor implements Comparable<TermCursor> {
+        private final IndexSegment segment;
+        private final int order;
+        private int index = -1;
+        private byte[] term;
+
+        TermCursor(IndexSegment segment, int order) {
+            this.segment = segment;
+            this.order = order;
+        }
+
+        boolean advance() {
+            if (++index >= segment.termCount()) return false;
+            term = segment.term(index);
+            return true;
+        }
+
+        @Override
+        public int compareTo(TermCursor other) {
+            int cmp = Arrays.compareUnsigned(term, other.term);
+            return cmp != 0 ? cmp : Integer.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package dev.mark.code.impl.index;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+final class SegmentWriter implements Closeable {
+
+    private final DataOutputStream out;
+    private long position;
+
+    private int[] jarOffsets = new int[16];
+    private int jarCount;
+    private int[] locationOffsets = new int[1024];
+    private int locationCount;
+    private int[] termOffsets = new int[1024];
+    private int termCount;
+    private byte[] previousTerm;
+
+    SegmentWriter(Path output) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output), 1 << 16));
+        write(IndexSegment.MAGIC);
+    }
+
+    void writeJar(String jar) throws IOException {
+        if (locationCount > 0 || termCount > 0) {
+            throw new IllegalStateException("Jars must be written before locations and terms");
+        }
+        jarOffsets = append(jarOffsets, jarCount++, currentOffset());
+        write(jar.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writeLocation(int jar, String name) throws IOException {
+        if (termCount > 0) {
+            throw new IllegalStateException("Locations must be written before terms");
+        }
+        locationOffsets = append(locationOffsets, locationCount++, currentOffset());
+        writeVarInt(jar);
+        write(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writeTerm(byte[] term, int[] postings, int count) throws IOException {
+        if (previousTerm != null && Arrays.compareUnsigned(previousTerm, term) >= 0) {
+            throw new IllegalStateException("Terms must be written in ascending order");
+        }
+        previousTerm = term;
+
+        termOffsets = append(termOffsets, termCount++, currentOffset());
+        writeVarInt(term.length);
+        write(term);
+
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarInt(postings[i] - previous);
+            previous = postings[i];
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            int termEnd = currentOffset();
+            int locationEnd = termCount > 0 ? termOffsets[0] : termEnd;
+            int jarEnd = locationCount > 0 ? locationOffsets[0] : locationEnd;
+
+            int jarTable = writeOffsets(jarOffsets, jarCount, jarEnd);
+            int locationTable = writeOffsets(locationOffsets, locationCount, locationEnd);
+            int termTable = writeOffsets(termOffsets, termCount, termEnd);
+
+            out.writeInt(jarCount);
+            out.writeInt(locationCount);
+            out.writeInt(termCount);
+            out.writeInt(jarTable);
+            out.writeInt(locationTable);
+            out.writeInt(termTable);
+            out.writeInt(0);
+            out.write(IndexSegment.MAGIC);
+            position += IndexSegment.FOOTER_SIZE;
+        } finally {
+            out.close();
+        }
+    }
+
+    private int writeOffsets(int[] offsets, int count, int end) throws IOException {
+        int table = currentOffset();
+        for (int i = 0; i < count; i++) {
+            out.writeInt(offsets[i]);
+        }
+        out.writeInt(end);
+        position += (long) (count + 1) * Integer.BYTES;
+        return table;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+            position++;
+        }
+        out.write(value);
+        position++;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private int currentOffset() throws IOException {
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Index segment exceeds 2 GiB");
+        }
+        return (int) position;
+    }
+
+    private static int[] append(int[] values, int index, int value) {
+        if (index == values.length) {
+            values = Arrays.copyOf(values, index * 2);
+        }
+        values[index] = value;
+        return values;
+    }
+}
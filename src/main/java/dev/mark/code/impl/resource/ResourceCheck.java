@@ -0,0 +1,300 @@
+package dev.mark.code.impl.resource;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.api.store.ResourceStore;
+import dev.mark.code.constants.ThreatPatterns;
+import dev.mark.code.impl.rules.RuleProfiler;
+import dev.mark.code.util.Entropy;
+import dev.mark.code.util.PatternMatcher;
+import dev.mark.code.util.RiskEvaluator;
+import dev.mark.code.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public final class ResourceCheck {
+
+    private static final int MAX_FINDINGS_PER_RESOURCE = 50;
+    private static final byte[][] URL_SCHEMES = ascii(List.of("http://", "https://", "ftp://"));
+    private static final byte[][] SHELL_COMMANDS = ascii(ThreatPatterns.SHELL_COMMANDS);
+    private static final byte[][] DANGEROUS_COMMANDS = ascii(ThreatPatterns.DANGEROUS_COMMANDS.stream().map(String::strip).toList());
+    private static final byte[][] EXECUTION_FLAGS = ascii(ThreatPatterns.EXECUTION_FLAGS);
+
+    public static List<ThreatResult> performCheck(ResourceStore resources, boolean entropy) {
+        List<ThreatResult> results = Collections.synchronizedList(new ArrayList<>());
+        resources.names().parallelStream().forEach(name -> {
+            ByteBuffer bytes = resources.get(name);
+            if (bytes == null) return;
+
+            List<ThreatResult> resourceResults = new ArrayList<>();
+            analyzeResource(name, bytes, entropy, resourceResults);
+            results.addAll(resourceResults);
+        });
+        return new ArrayList<>(results);
+    }
+
+    public static void analyzeResource(String name, ByteBuffer bytes, boolean entropy, List<ThreatResult> results) {
+        ResourceType type = ResourceType.detect(name, bytes);
+        int before = results.size();
+        long start = RuleProfiler.start();
+        analyzeType(name, type, results);
+        RuleProfiler.record("resource.type", start, results.size() > before);
+
+        if (entropy && !type.isCompressed(name)) {
+            before = results.size();
+            start = RuleProfiler.start();
+            analyzeEntropy(name, type, bytes, results);
+            RuleProfiler.record("resource.entropy", start, results.size() > before);
+        }
+
+        if (type.isText()) {
+            before = results.size();
+            start = RuleProfiler.start();
+            analyzeText(name, bytes, type == ResourceType.SCRIPT, results);
+            RuleProfiler.record("resource.text", start, results.size() > before);
+        }
+    }
+
+    private static void analyzeType(String name, ResourceType type, List<ThreatResult> results) {
+        boolean disguised = !type.getExtensions().isEmpty() && !type.matchesExtension(name);
+
+        if (type == ResourceType.CLASS && !name.endsWith(".class")) {
+            results.add(finding(ThreatResult.RiskLevel.HIGH, name, -1,
+                    "Class file hidden in resource", "Resource contains Java bytecode but is named " + name));
+        } else if (type.isExecutable() && disguised) {
+            results.add(finding(ThreatResult.RiskLevel.CRITICAL, name, -1,
+                    type.getDisplayName() + " disguised as " + ResourceType.extension(name), "Native code shipped inside the JAR: " + name));
+        } else if (type.isExecutable()) {
+            boolean program = ResourceType.extension(name).equals(".exe");
+            results.add(finding(program ? ThreatResult.RiskLevel.HIGH : ThreatResult.RiskLevel.LOW, name, -1,
+                    "Embedded " + type.getDisplayName(), "Native code shipped inside the JAR: " + name));
+        } else if (type == ResourceType.ARCHIVE && disguised) {
+            results.add(finding(ThreatResult.RiskLevel.MEDIUM, name, -1,
+                    "Archive disguised as " + ResourceType.extension(name), "Resource is a ZIP archive: " + name));
+        }
+    }
+
+    private static void analyzeEntropy(String name, ResourceType type, ByteBuffer bytes, List<ThreatResult> results) {
+        if (type.isText()) {
+            for (Entropy.Region region : Entropy.highEntropyRegions(bytes, Entropy.TEXT_WINDOW, Entropy.TEXT_THRESHOLD)) {
+                results.add(new ThreatResult(ThreatResult.ThreatType.ENTROPY, ThreatResult.RiskLevel.MEDIUM, name, "-", null,
+                        "Encoded data in text resource", describe(region, bytes.limit()), lineOf(bytes, region.start()), List.of()));
+            }
+            return;
+        }
+
+        List<Entropy.Region> regions = Entropy.highEntropyRegions(bytes, Entropy.BINARY_WINDOW, Entropy.BINARY_THRESHOLD);
+        if (regions.isEmpty()) return;
+
+        long covered = regions.stream().mapToLong(Entropy.Region::length).sum();
+        boolean mostly = covered * 2 >= bytes.limit();
+        if (type.isExecutable() && mostly) {
+            results.add(entropyFinding(ThreatResult.RiskLevel.HIGH, name, "Packed " + type.getDisplayName(), regions, bytes.limit()));
+        } else if (mostly) {
+            results.add(entropyFinding(ThreatResult.RiskLevel.MEDIUM, name, "Encrypted or compressed resource", regions, bytes.limit()));
+        } else {
+            results.add(entropyFinding(ThreatResult.RiskLevel.LOW, name, "High-entropy region in " + type.getDisplayName(), regions, bytes.limit()));
+        }
+    }
+
+    private static ThreatResult entropyFinding(ThreatResult.RiskLevel risk, String name, String description, List<Entropy.Region> regions, int size) {
+        Entropy.Region peak = regions.stream().max(Comparator.comparingDouble(Entropy.Region::peak)).orElseThrow();
+        return new ThreatResult(ThreatResult.ThreatType.ENTROPY, risk, name, "-", null, description,
+                regions.size() + " region(s), largest at " + describe(peak, size), -1, List.of());
+    }
+
+    private static String describe(Entropy.Region region, int size) {
+        return String.format("bytes %d-%d of %d, %.2f bits/byte", region.start(), region.end(), size, region.peak());
+    }
+
+    private static int lineOf(ByteBuffer bytes, int offset) {
+        int line = 1;
+        for (int i = 0; i < offset; i++) {
+            if (bytes.get(i) == '\n') line++;
+        }
+        return line;
+    }
+
+    private static void analyzeText(String name, ByteBuffer bytes, boolean script, List<ThreatResult> results) {
+        int limit = bytes.limit();
+        int line = 1;
+
+        for (int start = 0; start < limit && !isFull(results); line++) {
+            int end = start;
+            while (end < limit && bytes.get(end) != '\n') end++;
+
+            analyzeUrls(name, bytes, start, end, line, results);
+            analyzeIpAddresses(name, bytes, start, end, line, results);
+            analyzeCommands(name, bytes, start, end, line, script, results);
+
+            start = end + 1;
+        }
+    }
+
+    private static void analyzeUrls(String name, ByteBuffer bytes, int start, int end, int line, List<ThreatResult> results) {
+        for (byte[] scheme : URL_SCHEMES) {
+            int from = start;
+            int hit;
+            while (!isFull(results) && (hit = indexOfIgnoreCase(bytes, from, end, scheme)) >= 0) {
+                int tokenEnd = hit + scheme.length;
+                while (tokenEnd < end && !isUrlTerminator(bytes.get(tokenEnd))) tokenEnd++;
+
+                String url = ascii(bytes, hit, tokenEnd);
+                results.add(finding(RiskEvaluator.evaluateUrlRisk(url), name, line,
+                        "URL in resource: " + StringUtils.truncateString(url, 50), "Full URL: " + url));
+                if (!isFull(results) && PatternMatcher.SUSPICIOUS_DOMAIN_PATTERN.matcher(url).find()) {
+                    results.add(finding(ThreatResult.RiskLevel.HIGH, name, line,
+                            "Suspicious domain in resource: " + StringUtils.truncateString(url, 50),
+                            "Potential URL shortener or suspicious service: " + url));
+                }
+                from = tokenEnd;
+            }
+        }
+    }
+
+    private static void analyzeIpAddresses(String name, ByteBuffer bytes, int start, int end, int line, List<ThreatResult> results) {
+        for (int i = start; i < end && !isFull(results); i++) {
+            if (!isDigit(bytes.get(i)) || i > start && (isDigit(bytes.get(i - 1)) || bytes.get(i - 1) == '.')) continue;
+
+            int ipEnd = matchIpv4(bytes, i, end);
+            if (ipEnd < 0) continue;
+
+            String ip = ascii(bytes, i, ipEnd);
+            boolean privateIp = StringUtils.isPrivateIP(ip);
+            results.add(finding(privateIp ? ThreatResult.RiskLevel.LOW : ThreatResult.RiskLevel.MEDIUM, name, line,
+                    "IP address in resource: " + ip, privateIp ? "Private IP address" : "Public IP address - potential C2"));
+            i = ipEnd;
+        }
+    }
+
+    private static void analyzeCommands(String name, ByteBuffer bytes, int start, int end, int line, boolean script, List<ThreatResult> results) {
+        if (isFull(results)) return;
+
+        boolean piped = false;
+        boolean firstToken = true;
+
+        for (int i = start; i < end; ) {
+            while (i < end && isTokenSeparator(bytes.get(i))) {
+                piped |= bytes.get(i) == '|';
+                i++;
+            }
+            int tokenStart = i;
+            while (i < end && !isTokenSeparator(bytes.get(i))) i++;
+            if (tokenStart == i) break;
+
+            if (matchesToken(bytes, tokenStart, i, SHELL_COMMANDS)
+                    && (piped || hasExecutionFlag(bytes, i, end) || script && firstToken && !isShebang(bytes, start))) {
+                results.add(finding(ThreatResult.RiskLevel.HIGH, name, line,
+                        "Shell command in resource: " + ascii(bytes, tokenStart, i),
+                        "Line: " + StringUtils.truncateString(ascii(bytes, start, end).strip(), 100)));
+                return;
+            }
+            if (script && firstToken && matchesToken(bytes, tokenStart, i, DANGEROUS_COMMANDS)) {
+                results.add(finding(ThreatResult.RiskLevel.HIGH, name, line,
+                        "Dangerous command in script: " + ascii(bytes, tokenStart, i),
+                        "Line: " + StringUtils.truncateString(ascii(bytes, start, end).strip(), 100)));
+                return;
+            }
+            firstToken = false;
+        }
+    }
+
+    private static boolean isFull(List<ThreatResult> results) {
+        return results.size() >= MAX_FINDINGS_PER_RESOURCE;
+    }
+
+    private static boolean hasExecutionFlag(ByteBuffer bytes, int from, int end) {
+        for (byte[] flag : EXECUTION_FLAGS) {
+            if (indexOfIgnoreCase(bytes, from, end, flag) >= 0) return true;
+        }
+        return false;
+    }
+
+    private static boolean isShebang(ByteBuffer bytes, int lineStart) {
+        return lineStart == 0 && bytes.limit() > 1 && bytes.get(0) == '#' && bytes.get(1) == '!';
+    }
+
+    private static boolean matchesToken(ByteBuffer bytes, int start, int end, byte[][] candidates) {
+        int slash = end - 1;
+        while (slash >= start && bytes.get(slash) != '/' && bytes.get(slash) != '\\') slash--;
+
+        for (byte[] candidate : candidates) {
+            if (equalsIgnoreCase(bytes, start, end, candidate) || slash >= start && equalsIgnoreCase(bytes, slash + 1, end, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int matchIpv4(ByteBuffer bytes, int start, int end) {
+        int i = start;
+        for (int octet = 0; octet < 4; octet++) {
+            int value = 0;
+            int digits = 0;
+            while (i < end && isDigit(bytes.get(i)) && digits < 4) {
+                value = value * 10 + bytes.get(i) - '0';
+                digits++;
+                i++;
+            }
+            if (digits == 0 || digits > 3 || value > 255) return -1;
+            if (octet < 3) {
+                if (i >= end || bytes.get(i) != '.') return -1;
+                i++;
+            }
+        }
+        return i < end && (isDigit(bytes.get(i)) || bytes.get(i) == '.' && i + 1 < end && isDigit(bytes.get(i + 1))) ? -1 : i;
+    }
+
+    private static int indexOfIgnoreCase(ByteBuffer bytes, int from, int end, byte[] needle) {
+        for (int i = from; i <= end - needle.length; i++) {
+            if (equalsIgnoreCase(bytes, i, i + needle.length, needle)) return i;
+        }
+        return -1;
+    }
+
+    private static boolean equalsIgnoreCase(ByteBuffer bytes, int start, int end, byte[] expected) {
+        if (end - start != expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if (toLower(bytes.get(start + i)) != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b | 0x20) : b;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isUrlTerminator(byte b) {
+        return b <= ' ' || b == '"' || b == '\'' || b == '<' || b == '>' || b == '`' || b == ')' || b == ']' || b == '}';
+    }
+
+    private static boolean isTokenSeparator(byte b) {
+        return b <= ' ' || b == '"' || b == '\'' || b == ';' || b == '|' || b == '&' || b == '(' || b == ')' || b == '`' || b == '=' || b == ',';
+    }
+
+    private static String ascii(ByteBuffer bytes, int start, int end) {
+        byte[] token = new byte[end - start];
+        bytes.get(start, token);
+        return new String(token, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[][] ascii(Iterable<String> values) {
+        List<byte[]> bytes = new ArrayList<>();
+        for (String value : values) {
+            bytes.add(value.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+        }
+        return bytes.toArray(new byte[0][]);
+    }
+
+    private static ThreatResult finding(ThreatResult.RiskLevel risk, String name, int line, String description, String details) {
+        return new ThreatResult(ThreatResult.ThreatType.RESOURCE, risk, name, "-", null, description, details, line, List.of());
+    }
+}
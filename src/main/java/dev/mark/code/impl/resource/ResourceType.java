@@ -0,0 +1,94 @@
+package dev.mark.code.impl.resource;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Set;
+
+@Getter
+public enum ResourceType {
+    CLASS("Java class file", Set.of(".class")),
+    ARCHIVE("ZIP archive", Set.of(".jar", ".zip", ".war", ".ear", ".aar", ".apk", ".kar", ".nar", ".rar", ".sar")),
+    WINDOWS_EXECUTABLE("Windows executable", Set.of(".exe", ".dll", ".sys", ".node")),
+    ELF_EXECUTABLE("ELF executable", Set.of(".so", ".node")),
+    MACH_O_EXECUTABLE("Mach-O executable", Set.of(".dylib", ".jnilib", ".node")),
+    GZIP("GZIP data", Set.of(".gz", ".tgz")),
+    PDF("PDF document", Set.of(".pdf")),
+    IMAGE("Image", Set.of(".png", ".gif", ".jpg", ".jpeg")),
+    SCRIPT("Script", Set.of(".sh", ".bash", ".bat", ".cmd", ".ps1", ".vbs", ".py", ".pl")),
+    TEXT("Text", Set.of()),
+    BINARY("Binary data", Set.of());
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            ".xz", ".bz2", ".7z", ".lz4", ".lzma", ".zst", ".br", ".woff", ".woff2", ".webp", ".ico", ".mp3", ".ogg", ".mp4"
+    );
+    private static final int TEXT_SAMPLE_BYTES = 4096;
+    private static final double MIN_TEXT_RATIO = 0.95;
+
+    private final String displayName;
+    private final Set<String> extensions;
+
+    ResourceType(String displayName, Set<String> extensions) {
+        this.displayName = displayName;
+        this.extensions = extensions;
+    }
+
+    public boolean isExecutable() {
+        return this == WINDOWS_EXECUTABLE || this == ELF_EXECUTABLE || this == MACH_O_EXECUTABLE;
+    }
+
+    public boolean isText() {
+        return this == TEXT || this == SCRIPT;
+    }
+
+    public boolean isCompressed(String name) {
+        return this == CLASS || this == ARCHIVE || this == GZIP || this == PDF || this == IMAGE
+                || this == BINARY && COMPRESSED_EXTENSIONS.contains(extension(name));
+    }
+
+    public boolean matchesExtension(String name) {
+        return extensions.contains(extension(name));
+    }
+
+    public static ResourceType detect(String name, ByteBuffer bytes) {
+        int length = bytes.limit();
+        int b0 = length > 0 ? bytes.get(0) & 0xFF : -1;
+        int b1 = length > 1 ? bytes.get(1) & 0xFF : -1;
+        int b2 = length > 2 ? bytes.get(2) & 0xFF : -1;
+        int b3 = length > 3 ? bytes.get(3) & 0xFF : -1;
+
+        if (b0 == 0xCA && b1 == 0xFE && b2 == 0xBA && b3 == 0xBE) {
+            int major = length > 7 ? (bytes.get(6) & 0xFF) << 8 | bytes.get(7) & 0xFF : 0;
+            return major >= 45 ? CLASS : MACH_O_EXECUTABLE;
+        }
+        if (b0 == 'P' && b1 == 'K' && b2 == 3 && b3 == 4) return ARCHIVE;
+        if (b0 == 'M' && b1 == 'Z') return WINDOWS_EXECUTABLE;
+        if (b0 == 0x7F && b1 == 'E' && b2 == 'L' && b3 == 'F') return ELF_EXECUTABLE;
+        if ((b0 == 0xCF || b0 == 0xCE) && b1 == 0xFA && b2 == 0xED && b3 == 0xFE) return MACH_O_EXECUTABLE;
+        if (b0 == 0x1F && b1 == 0x8B) return GZIP;
+        if (b0 == '%' && b1 == 'P' && b2 == 'D' && b3 == 'F') return PDF;
+        if (b0 == 0x89 && b1 == 'P' && b2 == 'N' && b3 == 'G' || b0 == 'G' && b1 == 'I' && b2 == 'F' || b0 == 0xFF && b1 == 0xD8) return IMAGE;
+        if (!isTextual(bytes)) return BINARY;
+        if (b0 == '#' && b1 == '!' || SCRIPT.matchesExtension(name)) return SCRIPT;
+        return TEXT;
+    }
+
+    private static boolean isTextual(ByteBuffer bytes) {
+        int sample = Math.min(bytes.limit(), TEXT_SAMPLE_BYTES);
+        if (sample == 0) return false;
+
+        int printable = 0;
+        for (int i = 0; i < sample; i++) {
+            int b = bytes.get(i) & 0xFF;
+            if (b >= 0x20 && b != 0x7F || b == '\n' || b == '\r' || b == '\t') printable++;
+        }
+        return printable >= sample * MIN_TEXT_RATIO;
+    }
+
+    static String extension(String name) {
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        return dot > slash ? name.substring(dot).toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,144 @@
+package dev.mark.code.impl.rules;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.graph.ClassHierarchy;
+import org.objectweb.asm.tree.MethodInsnNode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+public final class CallRuleTable<C> {
+
+    private static final int MAX_COMPILED_OWNERS = 200_000;
+
+    @FunctionalInterface
+    public interface CallAction<C> {
+        void apply(C checker, MethodInsnNode methodInsnNode, String className, String methodName, String currentContext, List<ThreatResult> results);
+    }
+
+    private record Rule<C>(String name, Predicate<String> owner, Set<String> names, CallAction<C> action) {
+        boolean matchesName(String name) {
+            return names == null || names.contains(name);
+        }
+    }
+
+    private record OwnerRules<C>(Map<String, Rule<C>> byName, Rule<C> fallback) {
+        Rule<C> forName(String name) {
+            Rule<C> rule = byName.get(name);
+            return rule != null ? rule : fallback;
+        }
+    }
+
+    private final List<Rule<C>> rules;
+    private final OwnerRules<C> noRules = new OwnerRules<>(Map.of(), null);
+    private final Map<String, OwnerRules<C>> compiledOwners = new ConcurrentHashMap<>();
+    private volatile int compiledGeneration = ClassHierarchy.generation();
+
+    private CallRuleTable(List<Rule<C>> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    public boolean dispatch(C checker, MethodInsnNode methodInsnNode, String className, String methodName, String currentContext, List<ThreatResult> results) {
+        Rule<C> rule = find(methodInsnNode.owner, methodInsnNode.name);
+        if (rule == null) return false;
+
+        if (!RuleProfiler.isEnabled()) {
+            rule.action().apply(checker, methodInsnNode, className, methodName, currentContext, results);
+            return true;
+        }
+
+        int before = results.size();
+        long start = RuleProfiler.start();
+        rule.action().apply(checker, methodInsnNode, className, methodName, currentContext, results);
+        RuleProfiler.record(rule.name(), start, results.size() > before);
+        return true;
+    }
+
+    public CallAction<C> lookup(String owner, String name) {
+        Rule<C> rule = find(owner, name);
+        return rule != null ? rule.action() : null;
+    }
+
+    private Rule<C> find(String owner, String name) {
+        int generation = ClassHierarchy.generation();
+        if (generation != compiledGeneration) {
+            invalidate(generation);
+        }
+
+        OwnerRules<C> ownerRules = compiledOwners.get(owner);
+        if (ownerRules == null) {
+            if (compiledOwners.size() > MAX_COMPILED_OWNERS) {
+                compiledOwners.clear();
+            }
+            ownerRules = compiledOwners.computeIfAbsent(owner, this::compile);
+        }
+        return ownerRules.forName(name);
+    }
+
+    private synchronized void invalidate(int generation) {
+        if (generation != compiledGeneration) {
+            compiledOwners.clear();
+            compiledGeneration = generation;
+        }
+    }
+
+    private OwnerRules<C> compile(String owner) {
+        List<Rule<C>> applicable = rules.stream().filter(rule -> rule.owner().test(owner)).toList();
+        if (applicable.isEmpty()) return noRules;
+
+        Rule<C> fallback = null;
+        Map<String, Rule<C>> byName = new HashMap<>();
+        for (Rule<C> rule : applicable) {
+            if (rule.names() == null) {
+                fallback = rule;
+                break;
+            }
+            for (String name : rule.names()) {
+                byName.putIfAbsent(name, rule);
+            }
+        }
+
+        return new OwnerRules<>(Map.copyOf(byName), fallback);
+    }
+
+    public static final class Builder<C> {
+        private final List<Rule<C>> rules = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder<C> owners(String rule, Set<String> owners, CallAction<C> action) {
+            rules.add(new Rule<>(rule, owners::contains, null, action));
+            return this;
+        }
+
+        public Builder<C> ownerMethods(String rule, String owner, Set<String> names, CallAction<C> action) {
+            rules.add(new Rule<>(rule, owner::equals, Set.copyOf(names), action));
+            return this;
+        }
+
+        public Builder<C> subtypesOf(String rule, Set<String> types, CallAction<C> action) {
+            Set<String> supertypes = Set.copyOf(types);
+            rules.add(new Rule<>(rule, owner -> ClassHierarchy.isSubtypeOfAny(owner, supertypes), null, action));
+            return this;
+        }
+
+        public Builder<C> ownersMatching(String rule, Predicate<String> owner, CallAction<C> action) {
+            rules.add(new Rule<>(rule, owner, null, action));
+            return this;
+        }
+
+        public Builder<C> methods(String rule, Set<String> names, CallAction<C> action) {
+            rules.add(new Rule<>(rule, owner -> true, Set.copyOf(names), action));
+            return this;
+        }
+
+        public CallRuleTable<C> build() {
+            return new CallRuleTable<>(rules);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.mark.code.impl.rules;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RuleProfiler {
+
+    private static final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = Boolean.getBoolean("jarchecker.profile");
+
+    public record RuleStats(String rule, long evaluations, long matches, long nanos) {
+        public double matchRate() {
+            return evaluations == 0 ? 0 : (double) matches / evaluations;
+        }
+
+        public long nanosPerEvaluation() {
+            return evaluations == 0 ? 0 : nanos / evaluations;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder matches = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void record(String rule, long start, boolean matched) {
+        if (!enabled) return;
+
+        long elapsed = System.nanoTime() - start;
+        Counters ruleCounters = counters.get(rule);
+        if (ruleCounters == null) {
+            ruleCounters = counters.computeIfAbsent(rule, key -> new Counters());
+        }
+        ruleCounters.evaluations.increment();
+        if (matched) {
+            ruleCounters.matches.increment();
+        }
+        ruleCounters.nanos.add(elapsed);
+    }
+
+    public static List<RuleStats> report() {
+        return counters.entrySet().stream()
+                .map(entry -> new RuleStats(entry.getKey(), entry.getValue().evaluations.sum(),
+                        entry.getValue().matches.sum(), entry.getValue().nanos.sum()))
+                .sorted(Comparator.comparingLong(RuleStats::nanos).reversed().thenComparing(RuleStats::rule))
+                .toList();
+    }
+}
@@ -0,0 +1,65 @@
+package dev.mark.code.impl.rules;
+
+import dev.mark.code.api.model.ThreatResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class StringRuleSet<C> {
+
+    @FunctionalInterface
+    public interface StringRule<C> {
+        void apply(C checker, String value, String className, String methodName, List<ThreatResult> results);
+    }
+
+    private record NamedRule<C>(String name, StringRule<C> rule) {}
+
+    private final List<NamedRule<C>> rules;
+    private final boolean firstMatchOnly;
+
+    private StringRuleSet(List<NamedRule<C>> rules, boolean firstMatchOnly) {
+        this.rules = List.copyOf(rules);
+        this.firstMatchOnly = firstMatchOnly;
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    public void apply(C checker, String value, String className, String methodName, List<ThreatResult> results) {
+        boolean profiling = RuleProfiler.isEnabled();
+        for (NamedRule<C> namedRule : rules) {
+            int before = results.size();
+            long start = profiling ? RuleProfiler.start() : 0L;
+
+            namedRule.rule().apply(checker, value, className, methodName, results);
+
+            boolean matched = results.size() > before;
+            if (profiling) {
+                RuleProfiler.record(namedRule.name(), start, matched);
+            }
+            if (matched && firstMatchOnly) return;
+        }
+    }
+
+    public static final class Builder<C> {
+        private final List<NamedRule<C>> rules = new ArrayList<>();
+        private boolean firstMatchOnly;
+
+        private Builder() {}
+
+        public Builder<C> rule(String name, StringRule<C> rule) {
+            rules.add(new NamedRule<>(name, rule));
+            return this;
+        }
+
+        public Builder<C> firstMatchOnly() {
+            firstMatchOnly = true;
+            return this;
+        }
+
+        public StringRuleSet<C> build() {
+            return new StringRuleSet<>(rules, firstMatchOnly);
+        }
+    }
+}
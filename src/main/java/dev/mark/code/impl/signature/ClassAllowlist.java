@@ -0,0 +1,59 @@
+package dev.mark.code.impl.signature;
+
+import dev.mark.code.util.ConfiguredFile;
+import dev.mark.code.util.HashUtils;
+import dev.mark.code.util.JarFiles;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+public final class ClassAllowlist {
+
+    private static final ConfiguredFile<SortedHashFile> ALLOWLIST =
+            new ConfiguredFile<>("jarchecker.allowlist", "allowlist.db", "class allowlist", SortedHashFile::open);
+
+    public static boolean isEnabled() {
+        return ALLOWLIST.get() != null;
+    }
+
+    public static boolean isTrusted(byte[] sha256) {
+        SortedHashFile hashes = ALLOWLIST.get();
+        return hashes != null && hashes.contains(sha256);
+    }
+
+    public static void configure(Path location) throws IOException {
+        ALLOWLIST.configure(location);
+    }
+
+    public static int build(List<Path> trustedSources, Path output) throws IOException {
+        SortedHashFile.HashList hashes = new SortedHashFile.HashList();
+
+        for (Path source : trustedSources) {
+            for (Path jar : JarFiles.findJars(source)) {
+                addClassHashes(jar, hashes);
+            }
+        }
+
+        return SortedHashFile.write(output, hashes, false);
+    }
+
+    private static void addClassHashes(Path jar, SortedHashFile.HashList hashes) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().endsWith(".class")) continue;
+
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    hashes.add(HashUtils.sha256(IOUtils.toByteArray(inputStream)));
+                }
+            }
+        }
+    }
+}
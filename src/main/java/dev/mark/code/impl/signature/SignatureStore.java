@@ -0,0 +1,50 @@
+package dev.mark.code.impl.signature;
+
+import dev.mark.code.util.ConfiguredFile;
+import dev.mark.code.util.HashUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class SignatureStore {
+
+    private static final ConfiguredFile<SortedHashFile> DATABASE =
+            new ConfiguredFile<>("jarchecker.signatures", "signatures.db", "signature database", SortedHashFile::open);
+
+    public static boolean isEnabled() {
+        return DATABASE.get() != null;
+    }
+
+    public static boolean isKnownMalicious(byte[] sha256) {
+        SortedHashFile hashes = DATABASE.get();
+        return hashes != null && hashes.contains(sha256);
+    }
+
+    public static void configure(Path location) throws IOException {
+        DATABASE.configure(location);
+    }
+
+    public static int build(Path hexHashes, Path output) throws IOException {
+        SortedHashFile.HashList hashes = new SortedHashFile.HashList();
+
+        try (BufferedReader reader = Files.newBufferedReader(hexHashes)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+                String hex = trimmed.split("[\\s,;]", 2)[0];
+                if (hex.length() != HashUtils.SHA256_LENGTH * 2) {
+                    throw new IOException(String.format("Line %d is not a SHA-256 hash: %s", lineNumber, hex));
+                }
+                hashes.add(HashUtils.fromHex(hex));
+            }
+        }
+
+        return SortedHashFile.write(output, hashes, true);
+    }
+}
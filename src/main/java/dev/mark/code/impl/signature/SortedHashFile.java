@@ -0,0 +1,224 @@
+package dev.mark.code.impl.signature;
+
+import dev.mark.code.util.HashUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public final class SortedHashFile {
+
+    private static final byte[] MAGIC = "JCHASH01".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = MAGIC.length + 4 * Integer.BYTES;
+    private static final int RECORD_LONGS = HashUtils.SHA256_LENGTH / Long.BYTES;
+    private static final int BLOOM_BITS_PER_HASH = 10;
+    private static final int BLOOM_FUNCTIONS = 7;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int bloomFunctions;
+    private final long bloomMask;
+    private final int dataOffset;
+
+    private SortedHashFile(MappedByteBuffer buffer, int count, int bloomFunctions, int bloomWords) {
+        this.buffer = buffer;
+        this.count = count;
+        this.bloomFunctions = bloomFunctions;
+        this.bloomMask = (long) bloomWords * Long.SIZE - 1;
+        this.dataOffset = HEADER_SIZE + bloomWords * Long.BYTES;
+    }
+
+    public static SortedHashFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Hash file too large: " + path);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(0, magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a JarChecker hash file: " + path);
+            }
+
+            int count = buffer.getInt(MAGIC.length);
+            int bloomFunctions = buffer.getInt(MAGIC.length + 4);
+            int bloomWords = buffer.getInt(MAGIC.length + 8);
+            long expectedSize = HEADER_SIZE + (long) bloomWords * Long.BYTES + (long) count * HashUtils.SHA256_LENGTH;
+            if (expectedSize != channel.size()) {
+                throw new IOException("Truncated hash file: " + path);
+            }
+
+            return new SortedHashFile(buffer, count, bloomFunctions, bloomWords);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean contains(byte[] hash) {
+        long h0 = getLong(hash, 0);
+        long h1 = getLong(hash, 8);
+        long h2 = getLong(hash, 16);
+        long h3 = getLong(hash, 24);
+
+        return mightContain(h0, h1) && binarySearch(h0, h1, h2, h3);
+    }
+
+    private boolean mightContain(long h0, long h1) {
+        for (int i = 0; i < bloomFunctions; i++) {
+            long bit = (h0 + i * h1) & bloomMask;
+            long word = buffer.getLong(HEADER_SIZE + (int) (bit >>> 6) * Long.BYTES);
+            if ((word & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private boolean binarySearch(long h0, long h1, long h2, long h3) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = dataOffset + middle * HashUtils.SHA256_LENGTH;
+
+            int comparison = Long.compareUnsigned(buffer.getLong(offset), h0);
+            if (comparison == 0) comparison = Long.compareUnsigned(buffer.getLong(offset + 8), h1);
+            if (comparison == 0) comparison = Long.compareUnsigned(buffer.getLong(offset + 16), h2);
+            if (comparison == 0) comparison = Long.compareUnsigned(buffer.getLong(offset + 24), h3);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static int write(Path path, HashList hashes, boolean withBloomFilter) throws IOException {
+        long[] records = hashes.toSortedUniqueRecords();
+        int count = records.length / RECORD_LONGS;
+
+        int bloomWords = withBloomFilter ? bloomWordsFor(count) : 0;
+        long[] bloom = new long[bloomWords];
+        long bloomMask = (long) bloomWords * Long.SIZE - 1;
+        for (int record = 0; withBloomFilter && record < count; record++) {
+            long h0 = records[record * RECORD_LONGS];
+            long h1 = records[record * RECORD_LONGS + 1];
+            for (int i = 0; i < BLOOM_FUNCTIONS; i++) {
+                long bit = (h0 + i * h1) & bloomMask;
+                bloom[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeInt(count);
+            out.writeInt(withBloomFilter ? BLOOM_FUNCTIONS : 0);
+            out.writeInt(bloomWords);
+            out.writeInt(0);
+            for (long word : bloom) {
+                out.writeLong(word);
+            }
+            for (long value : records) {
+                out.writeLong(value);
+            }
+        }
+        return count;
+    }
+
+    private static int bloomWordsFor(int count) {
+        long bits = Long.highestOneBit(Math.max(64L, (long) count * BLOOM_BITS_PER_HASH) * 2 - 1);
+        return (int) Math.min(bits / Long.SIZE, 1 << 27);
+    }
+
+    static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    public static final class HashList {
+        private long[] records = new long[1024];
+        private int size;
+
+        public void add(byte[] hash) {
+            if (hash.length != HashUtils.SHA256_LENGTH) {
+                throw new IllegalArgumentException("Expected a SHA-256 hash, got " + hash.length + " bytes");
+            }
+            if (size + RECORD_LONGS > records.length) {
+                records = Arrays.copyOf(records, records.length * 2);
+            }
+            for (int i = 0; i < RECORD_LONGS; i++) {
+                records[size++] = getLong(hash, i * Long.BYTES);
+            }
+        }
+
+        public int count() {
+            return size / RECORD_LONGS;
+        }
+
+        long[] toSortedUniqueRecords() {
+            int count = count();
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            mergeSort(order, new int[count], 0, count);
+
+            long[] sorted = new long[size];
+            int written = 0;
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && compare(order[i], order[i - 1]) == 0) continue;
+                System.arraycopy(records, order[i] * RECORD_LONGS, sorted, written, RECORD_LONGS);
+                written += RECORD_LONGS;
+            }
+            return Arrays.copyOf(sorted, written);
+        }
+
+        private void mergeSort(int[] order, int[] scratch, int from, int to) {
+            if (to - from < 2) return;
+
+            int middle = (from + to) >>> 1;
+            mergeSort(order, scratch, from, middle);
+            mergeSort(order, scratch, middle, to);
+
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && compare(order[left], order[right]) <= 0)) {
+                    scratch[i] = order[left++];
+                } else {
+                    scratch[i] = order[right++];
+                }
+            }
+            System.arraycopy(scratch, from, order, from, to - from);
+        }
+
+        private int compare(int a, int b) {
+            for (int i = 0; i < RECORD_LONGS; i++) {
+                int comparison = Long.compareUnsigned(records[a * RECORD_LONGS + i], records[b * RECORD_LONGS + i]);
+                if (comparison != 0) return comparison;
+            }
+            return 0;
+        }
+    }
+}
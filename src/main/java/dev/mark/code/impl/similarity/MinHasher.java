@@ -0,0 +1,90 @@
+package dev.mark.code.impl.similarity;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public final class MinHasher {
+
+    public static final int SIGNATURE_SIZE = 64;
+    private static final int MIN_SHINGLES = 16;
+    private static final long SEED = 0x4A61724368656B72L;
+    private static final int OPCODE_TAG = 0x01000000;
+    private static final int API_TAG = 0x02000000;
+
+    private static final long[] MULTIPLIERS = new long[SIGNATURE_SIZE];
+    private static final long[] INCREMENTS = new long[SIGNATURE_SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1L;
+            INCREMENTS[i] = random.nextLong();
+        }
+    }
+
+    public static int[] signature(ClassNode classNode) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = 0;
+
+        for (MethodNode methodNode : classNode.methods) {
+            if (methodNode.instructions == null) continue;
+
+            int previousOpcode = -1;
+            int olderOpcode = -1;
+            int previousApi = 0;
+
+            for (AbstractInsnNode instruction = methodNode.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+                int opcode = instruction.getOpcode();
+                if (opcode < 0) continue;
+
+                if (olderOpcode >= 0) {
+                    update(signature, OPCODE_TAG | (olderOpcode << 16) | (previousOpcode << 8) | opcode);
+                    shingles++;
+                }
+                olderOpcode = previousOpcode;
+                previousOpcode = opcode;
+
+                if (instruction instanceof MethodInsnNode methodInsnNode) {
+                    int api = methodInsnNode.owner.hashCode() * 31 + methodInsnNode.name.hashCode();
+                    update(signature, API_TAG ^ api);
+                    update(signature, previousApi * 0x9E3779B1 + api);
+                    previousApi = api;
+                    shingles += 2;
+                }
+            }
+        }
+
+        return shingles >= MIN_SHINGLES ? signature : null;
+    }
+
+    public static double similarity(int[] first, int[] second) {
+        int matches = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) matches++;
+        }
+        return (double) matches / SIGNATURE_SIZE;
+    }
+
+    private static void update(int[] signature, int shingle) {
+        long mixed = mix(shingle);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            int hash = (int) ((MULTIPLIERS[i] * mixed + INCREMENTS[i]) >>> 33);
+            if (hash < signature[i]) {
+                signature[i] = hash;
+            }
+        }
+    }
+
+    static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,52 @@
+package dev.mark.code.impl.similarity;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.impl.ClassScheduler;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class SimilarityCheck {
+
+    private static final double CRITICAL_SIMILARITY = 0.9;
+
+    public static boolean isEnabled() {
+        return SimilarityIndex.current() != null;
+    }
+
+    public static List<ThreatResult> performCheck(List<ClassNode> classes) {
+        SimilarityIndex index = SimilarityIndex.current();
+        if (index == null) return new ArrayList<>();
+
+        return ClassScheduler.execute(classes, (classNode, results) -> analyzeClass(index, classNode, results));
+    }
+
+    public static void analyzeClass(ClassNode classNode, List<ThreatResult> results) {
+        SimilarityIndex index = SimilarityIndex.current();
+        if (index != null) {
+            analyzeClass(index, classNode, results);
+        }
+    }
+
+    private static void analyzeClass(SimilarityIndex index, ClassNode classNode, List<ThreatResult> results) {
+        int[] signature = MinHasher.signature(classNode);
+        if (signature == null) return;
+
+        List<SimilarityIndex.Match> matches = index.nearest(signature);
+        if (matches.isEmpty()) return;
+
+        SimilarityIndex.Match best = matches.get(0);
+        ThreatResult.RiskLevel risk = best.similarity() >= CRITICAL_SIMILARITY ? ThreatResult.RiskLevel.CRITICAL : ThreatResult.RiskLevel.HIGH;
+        String nearest = matches.stream()
+                .map(match -> String.format("%s (%.0f%%)", match.family(), match.similarity() * 100))
+                .collect(Collectors.joining(", "));
+
+        results.add(new ThreatResult(
+                ThreatResult.ThreatType.SIMILARITY, risk, classNode.name, "-",
+                String.format("Similar to known malware family %s (%.0f%%)", best.family(), best.similarity() * 100),
+                "Nearest families: " + nearest
+        ));
+    }
+}
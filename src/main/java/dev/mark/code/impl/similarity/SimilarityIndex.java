@@ -0,0 +1,251 @@
+package dev.mark.code.impl.similarity;
+
+import dev.mark.code.util.ConfiguredFile;
+import dev.mark.code.util.JarFiles;
+import org.apache.commons.io.IOUtils;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.*;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+public final class SimilarityIndex {
+
+    public static final double MIN_SIMILARITY = 0.75;
+    public static final String PROPERTY = "jarchecker.similarity";
+
+    private static final byte[] MAGIC = "JCMINH01".getBytes(StandardCharsets.US_ASCII);
+    private static final int BANDS = 16;
+    private static final int ROWS = MinHasher.SIGNATURE_SIZE / BANDS;
+    private static final int MAX_MATCHES = 3;
+    private static final int EMPTY = -1;
+    private static final ConfiguredFile<SimilarityIndex> CORPUS =
+            new ConfiguredFile<>(PROPERTY, "similarity.db", "similarity corpus", SimilarityIndex::load);
+
+    public record Match(String family, double similarity) {}
+
+    public record FamilySource(String family, Path path) {}
+
+    private final String[] families;
+    private final int[] sampleFamilies;
+    private final int[] signatures;
+    private final long[][] bucketKeys;
+    private final int[][] bucketHeads;
+    private final int[] chains;
+
+    private SimilarityIndex(String[] families, int[] sampleFamilies, int[] signatures) {
+        this.families = families;
+        this.sampleFamilies = sampleFamilies;
+        this.signatures = signatures;
+
+        int samples = sampleFamilies.length;
+        int tableSize = Integer.highestOneBit(Math.max(16, samples * 2) * 2 - 1);
+        this.bucketKeys = new long[BANDS][tableSize];
+        this.bucketHeads = new int[BANDS][tableSize];
+        this.chains = new int[samples * BANDS];
+
+        for (int band = 0; band < BANDS; band++) {
+            Arrays.fill(bucketHeads[band], EMPTY);
+            for (int sample = 0; sample < samples; sample++) {
+                insert(band, bandKey(signatures, sample * MinHasher.SIGNATURE_SIZE, band), sample);
+            }
+        }
+    }
+
+    public static SimilarityIndex current() {
+        return CORPUS.get();
+    }
+
+    public static void configure(Path location) throws IOException {
+        CORPUS.configure(location);
+    }
+
+    public int size() {
+        return sampleFamilies.length;
+    }
+
+    public List<Match> nearest(int[] signature) {
+        int[] bestFamilies = new int[MAX_MATCHES];
+        int[] bestMatches = new int[MAX_MATCHES];
+        Arrays.fill(bestFamilies, EMPTY);
+
+        int minMatches = (int) Math.ceil(MIN_SIMILARITY * MinHasher.SIGNATURE_SIZE);
+        for (int band = 0; band < BANDS; band++) {
+            int slot = findSlot(band, bandKey(signature, 0, band));
+            if (bucketHeads[band][slot] == EMPTY) continue;
+
+            for (int sample = bucketHeads[band][slot]; sample != EMPTY; sample = chains[sample * BANDS + band]) {
+                int matches = countMatches(signature, sample);
+                if (matches >= minMatches) {
+                    offer(sampleFamilies[sample], matches, bestFamilies, bestMatches);
+                }
+            }
+        }
+
+        List<Match> result = new ArrayList<>(MAX_MATCHES);
+        for (int i = 0; i < MAX_MATCHES && bestFamilies[i] != EMPTY; i++) {
+            result.add(new Match(families[bestFamilies[i]], (double) bestMatches[i] / MinHasher.SIGNATURE_SIZE));
+        }
+        return result;
+    }
+
+    private int countMatches(int[] signature, int sample) {
+        int offset = sample * MinHasher.SIGNATURE_SIZE;
+        int matches = 0;
+        for (int i = 0; i < MinHasher.SIGNATURE_SIZE; i++) {
+            if (signatures[offset + i] == signature[i]) matches++;
+        }
+        return matches;
+    }
+
+    private static void offer(int family, int matches, int[] bestFamilies, int[] bestMatches) {
+        for (int i = 0; i < MAX_MATCHES; i++) {
+            if (bestFamilies[i] == family) {
+                if (matches <= bestMatches[i]) return;
+                System.arraycopy(bestFamilies, i + 1, bestFamilies, i, MAX_MATCHES - i - 1);
+                System.arraycopy(bestMatches, i + 1, bestMatches, i, MAX_MATCHES - i - 1);
+                bestFamilies[MAX_MATCHES - 1] = EMPTY;
+                bestMatches[MAX_MATCHES - 1] = 0;
+                break;
+            }
+        }
+
+        for (int i = 0; i < MAX_MATCHES; i++) {
+            if (bestFamilies[i] == EMPTY || matches > bestMatches[i]) {
+                System.arraycopy(bestFamilies, i, bestFamilies, i + 1, MAX_MATCHES - i - 1);
+                System.arraycopy(bestMatches, i, bestMatches, i + 1, MAX_MATCHES - i - 1);
+                bestFamilies[i] = family;
+                bestMatches[i] = matches;
+                return;
+            }
+        }
+    }
+
+    private void insert(int band, long key, int sample) {
+        int slot = findSlot(band, key);
+        if (bucketHeads[band][slot] == EMPTY) {
+            bucketKeys[band][slot] = key;
+            chains[sample * BANDS + band] = EMPTY;
+        } else {
+            chains[sample * BANDS + band] = bucketHeads[band][slot];
+        }
+        bucketHeads[band][slot] = sample;
+    }
+
+    private int findSlot(int band, long key) {
+        long[] keys = bucketKeys[band];
+        int[] heads = bucketHeads[band];
+        int mask = keys.length - 1;
+
+        int slot = (int) MinHasher.mix(key) & mask;
+        while (heads[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long bandKey(int[] signature, int offset, int band) {
+        long key = band;
+        for (int row = 0; row < ROWS; row++) {
+            key = key * 0x100000001B3L + signature[offset + band * ROWS + row];
+        }
+        return key;
+    }
+
+    private static SimilarityIndex load(Path location) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(location), 1 << 16))) {
+            byte[] magic = in.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC) || in.readInt() != MinHasher.SIGNATURE_SIZE) {
+                throw new IOException("Not a compatible similarity corpus: " + location);
+            }
+
+            String[] families = new String[in.readInt()];
+            for (int i = 0; i < families.length; i++) {
+                families[i] = in.readUTF();
+            }
+
+            int samples = in.readInt();
+            int[] sampleFamilies = new int[samples];
+            int[] signatures = new int[samples * MinHasher.SIGNATURE_SIZE];
+            for (int sample = 0; sample < samples; sample++) {
+                sampleFamilies[sample] = in.readInt();
+                for (int i = 0; i < MinHasher.SIGNATURE_SIZE; i++) {
+                    signatures[sample * MinHasher.SIGNATURE_SIZE + i] = in.readInt();
+                }
+            }
+            return new SimilarityIndex(families, sampleFamilies, signatures);
+        }
+    }
+
+    public static int build(List<FamilySource> sources, Path output) throws IOException {
+        List<String> families = new ArrayList<>();
+        Map<IntBuffer, Integer> samples = new LinkedHashMap<>();
+
+        for (FamilySource source : sources) {
+            if (!families.contains(source.family())) {
+                families.add(source.family());
+            }
+            int family = families.indexOf(source.family());
+
+            for (Path jar : JarFiles.findJars(source.path())) {
+                for (int[] signature : classSignatures(jar)) {
+                    samples.putIfAbsent(IntBuffer.wrap(signature), family);
+                }
+            }
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeInt(MinHasher.SIGNATURE_SIZE);
+            out.writeInt(families.size());
+            for (String family : families) {
+                out.writeUTF(family);
+            }
+
+            out.writeInt(samples.size());
+            for (Map.Entry<IntBuffer, Integer> sample : samples.entrySet()) {
+                out.writeInt(sample.getValue());
+                for (int value : sample.getKey().array()) {
+                    out.writeInt(value);
+                }
+            }
+        }
+        return samples.size();
+    }
+
+    private static List<int[]> classSignatures(Path jar) throws IOException {
+        List<int[]> signatures = new ArrayList<>();
+
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().endsWith(".class")) continue;
+
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    ClassNode classNode = new ClassNode();
+                    new ClassReader(IOUtils.toByteArray(inputStream)).accept(classNode, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+                    int[] signature = MinHasher.signature(classNode);
+                    if (signature != null) {
+                        signatures.add(signature);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping unreadable class " + entry.getName() + " in " + jar + ": " + e.getMessage());
+                }
+            }
+        }
+        return signatures;
+    }
+}
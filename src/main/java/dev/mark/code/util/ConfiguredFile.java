@@ -0,0 +1,55 @@
+package dev.mark.code.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class ConfiguredFile<T> {
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(Path location) throws IOException;
+    }
+
+    private final String property;
+    private final Path defaultLocation;
+    private final String description;
+    private final Loader<T> loader;
+
+    private volatile T value;
+    private volatile boolean loaded;
+
+    public ConfiguredFile(String property, String defaultFileName, String description, Loader<T> loader) {
+        this.property = property;
+        this.defaultLocation = Path.of(System.getProperty("user.home"), ".jarchecker", defaultFileName);
+        this.description = description;
+        this.loader = loader;
+    }
+
+    public T get() {
+        if (!loaded) {
+            loadDefault();
+        }
+        return value;
+    }
+
+    public synchronized void configure(Path location) throws IOException {
+        value = loader.load(location);
+        loaded = true;
+    }
+
+    private synchronized void loadDefault() {
+        if (loaded) return;
+
+        String configured = System.getProperty(property);
+        Path location = configured != null ? Path.of(configured) : defaultLocation;
+        if (Files.isRegularFile(location)) {
+            try {
+                value = loader.load(location);
+            } catch (IOException e) {
+                System.err.println("Cannot load " + description + " " + location + ": " + e.getMessage());
+            }
+        }
+        loaded = true;
+    }
+}
@@ -0,0 +1,54 @@
+package dev.mark.code.util;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.util.Textifier;
+import org.objectweb.asm.util.TraceMethodVisitor;
+
+import java.util.List;
+
+public final class Disassembler {
+
+    public record Disassembly(String text, int[] instructionOffsets) {
+
+        public int start(int instructionIndex) {
+            return instructionIndex >= 0 && instructionIndex < instructionOffsets.length - 1 ? instructionOffsets[instructionIndex] : -1;
+        }
+
+        public int end(int instructionIndex) {
+            return instructionIndex >= 0 && instructionIndex < instructionOffsets.length - 1 ? instructionOffsets[instructionIndex + 1] : -1;
+        }
+    }
+
+    public static Disassembly disassemble(MethodNode methodNode) {
+        Textifier textifier = new Textifier();
+        TraceMethodVisitor visitor = new TraceMethodVisitor(textifier);
+
+        StringBuilder text = new StringBuilder(methodNode.name).append(methodNode.desc).append('\n');
+        int[] offsets = new int[methodNode.instructions.size() + 1];
+
+        int index = 0;
+        for (AbstractInsnNode instruction = methodNode.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            offsets[index++] = text.length();
+
+            int from = textifier.text.size();
+            instruction.accept(visitor);
+            appendText(textifier.text.subList(from, textifier.text.size()), text);
+        }
+        offsets[index] = text.length();
+
+        return new Disassembly(text.toString(), offsets);
+    }
+
+    private static void appendText(List<Object> entries, StringBuilder text) {
+        for (Object entry : entries) {
+            if (entry instanceof List<?> nested) {
+                @SuppressWarnings("unchecked")
+                List<Object> children = (List<Object>) nested;
+                appendText(children, text);
+            } else {
+                text.append(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package dev.mark.code.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class Entropy {
+
+    public static final int TEXT_WINDOW = 256;
+    public static final double TEXT_THRESHOLD = 5.4;
+    public static final double PACKED_TEXT_THRESHOLD = 6.8;
+    public static final int BINARY_WINDOW = 1024;
+    public static final double BINARY_THRESHOLD = 7.5;
+
+    private static final int MAX_REGIONS = 16;
+    private static final int BLOCKS = 2;
+    private static final int LANES = 4;
+
+    public record Region(int start, int end, double peak) {
+        public int length() {
+            return end - start;
+        }
+    }
+
+    public static List<Region> highEntropyRegions(ByteBuffer bytes, int window, double threshold) {
+        List<Region> regions = new ArrayList<>();
+        int blockSize = window / BLOCKS;
+        int position = bytes.position();
+        int limit = bytes.limit();
+        if (limit - position < window) return regions;
+
+        double[] weights = new double[window + 1];
+        for (int count = 2; count <= window; count++) {
+            weights[count] = count * log2(count);
+        }
+        double maxSum = (log2(window) - threshold) * window;
+
+        int[][] blocks = new int[BLOCKS][256];
+        int[] counts = new int[256];
+        int[] lanes = new int[LANES * 256];
+        byte[] chunk = new byte[blockSize];
+
+        int regionStart = -1;
+        int regionEnd = -1;
+        double minSum = Double.MAX_VALUE;
+
+        for (int start = position, block = 0; start + blockSize <= limit; start += blockSize, block++) {
+            bytes.get(start, chunk);
+            count(chunk, blockSize, lanes);
+            slide(lanes, blocks[block % BLOCKS], counts);
+
+            if (block < BLOCKS - 1) continue;
+
+            double sum = weightedSum(counts, weights);
+            if (sum > maxSum) continue;
+
+            int windowEnd = start + blockSize;
+            int windowStart = windowEnd - window;
+            if (regionStart >= 0 && windowStart > regionEnd) {
+                if (!addRegion(regions, regionStart, regionEnd, minSum, window)) return regions;
+                regionStart = -1;
+            }
+            if (regionStart < 0) {
+                regionStart = windowStart;
+                minSum = sum;
+            }
+            regionEnd = windowEnd;
+            minSum = Math.min(minSum, sum);
+        }
+
+        if (regionStart >= 0) {
+            addRegion(regions, regionStart, regionEnd, minSum, window);
+        }
+        return regions;
+    }
+
+    private static void count(byte[] chunk, int length, int[] lanes) {
+        int i = 0;
+        for (; i + LANES <= length; i += LANES) {
+            lanes[chunk[i] & 0xFF]++;
+            lanes[256 + (chunk[i + 1] & 0xFF)]++;
+            lanes[512 + (chunk[i + 2] & 0xFF)]++;
+            lanes[768 + (chunk[i + 3] & 0xFF)]++;
+        }
+        for (; i < length; i++) {
+            lanes[chunk[i] & 0xFF]++;
+        }
+    }
+
+    private static void slide(int[] lanes, int[] oldest, int[] counts) {
+        for (int k = 0; k < 256; k++) {
+            int fresh = lanes[k] + lanes[256 + k] + lanes[512 + k] + lanes[768 + k];
+            counts[k] += fresh - oldest[k];
+            oldest[k] = fresh;
+        }
+        Arrays.fill(lanes, 0);
+    }
+
+    private static double weightedSum(int[] counts, double[] weights) {
+        double a = 0, b = 0, c = 0, d = 0;
+        for (int k = 0; k < 256; k += 4) {
+            a += weights[counts[k]];
+            b += weights[counts[k + 1]];
+            c += weights[counts[k + 2]];
+            d += weights[counts[k + 3]];
+        }
+        return a + b + c + d;
+    }
+
+    private static boolean addRegion(List<Region> regions, int start, int end, double minSum, int window) {
+        regions.add(new Region(start, end, log2(window) - minSum / window));
+        return regions.size() < MAX_REGIONS;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.mark.code.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+public final class JarFiles {
+
+    public static List<Path> findJars(Path source) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return List.of(source);
+        }
+
+        try (Stream<Path> paths = Files.walk(source)) {
+            return paths.filter(JarFiles::isJar).filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    public static boolean isJar(Path path) {
+        return path.getFileName() != null && path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jar");
+    }
+}
@@ -0,0 +1,69 @@
+package dev.mark.code.util;
+
+import dev.mark.code.api.model.ThreatResult;
+import dev.mark.code.api.model.Verdict;
+
+import java.util.List;
+
+public final class Json {
+
+    public static String quote(String value) {
+        if (value == null) return "null";
+
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    public static String array(List<String> values) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) builder.append(',');
+            builder.append(values.get(i));
+        }
+        return builder.append(']').toString();
+    }
+
+    public static String threat(ThreatResult result) {
+        if (result == null) return "null";
+
+        return "{\"type\":" + quote(result.getType().name())
+                + ",\"riskLevel\":" + quote(result.getRiskLevel().name())
+                + ",\"className\":" + quote(result.getClassName())
+                + ",\"methodName\":" + quote(result.getMethodName())
+                + ",\"description\":" + quote(result.getDescription())
+                + ",\"details\":" + quote(result.getDetails())
+                + ",\"lineNumber\":" + result.getLineNumber()
+                + ",\"callerChain\":" + array(result.getCallerChain().stream().map(Json::quote).toList())
+                + "}";
+    }
+
+    public static String threats(List<ThreatResult> results) {
+        return array(results.stream().map(Json::threat).toList());
+    }
+
+    public static String verdict(Verdict verdict) {
+        return "{\"rejected\":" + verdict.isRejected()
+                + ",\"threshold\":" + quote(verdict.threshold().name())
+                + ",\"analyzedClasses\":" + verdict.analyzedClasses()
+                + ",\"totalClasses\":" + verdict.totalClasses()
+                + ",\"trigger\":" + threat(verdict.trigger())
+                + "}";
+    }
+}
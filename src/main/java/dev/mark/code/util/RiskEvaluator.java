@@ -42,4 +42,12 @@ public final class RiskEvaluator {
             default -> currentRisk;
         };
     }
-}
\ No newline at end of file
+
+    public static ThreatResult.RiskLevel reduceRisk(ThreatResult.RiskLevel currentRisk) {
+        return switch (currentRisk) {
+            case CRITICAL -> ThreatResult.RiskLevel.HIGH;
+            case HIGH -> ThreatResult.RiskLevel.MEDIUM;
+            default -> ThreatResult.RiskLevel.LOW;
+        };
+    }
+}